@@ -13,9 +13,11 @@ public class Account {
     private String iban;
     private double balance = 0.0;
     private String currency;
+    private int currencyId; // Interned id of the currency
     private String type;
     private double minBalance = 0.0;  // New field for minimum balance
     private List<Card> cards = new ArrayList<>();
+    private final MerchantSpendings spendings = new MerchantSpendings();
 
     /**
      * Constructs an Account instance.
@@ -0,0 +1,149 @@
+package org.poo.account;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals of the online payments of an account, for every merchant.
+ * Each merchant keeps its payments in timestamp order with prefix sums, so the
+ * total spent in any window is found with two binary searches.
+ * <p>
+ * Windows starting at a merchant's first payment, and short windows, are summed
+ * payment by payment in timestamp order, exactly like adding them up one at a time.
+ * Longer windows take the difference of two prefix sums, which may differ from that
+ * in the last digits of the floating point total.
+ */
+public final class MerchantSpendings {
+    private static final int INITIAL_CAPACITY = 8;
+    // Windows up to this many payments are summed directly
+    private static final int DIRECT_SUM_LIMIT = 64;
+
+    // Merchant name -> its payments; the tree keeps the names sorted
+    private final Map<String, Payments> merchants = new TreeMap<>();
+
+    /**
+     * The total spent at a merchant inside a window.
+     *
+     * @param commerciant the name of the merchant
+     * @param total the amount spent at the merchant
+     */
+    public record Total(String commerciant, double total) {
+    }
+
+    /**
+     * Records a successful online payment.
+     *
+     * @param commerciant the merchant that was paid
+     * @param timestamp the timestamp of the payment
+     * @param amount the amount paid, in the currency of the account
+     */
+    public void record(final String commerciant, final int timestamp, final double amount) {
+        if (commerciant == null) {
+            return;
+        }
+        merchants.computeIfAbsent(commerciant, c -> new Payments()).add(timestamp, amount);
+    }
+
+    /**
+     * Computes how much was spent at every merchant inside a window.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive
+     * @param endTimestamp the last timestamp of the window, inclusive
+     * @return the totals of the merchants paid inside the window, sorted by name
+     */
+    public List<Total> totalsBetween(final int startTimestamp, final int endTimestamp) {
+        List<Total> totals = new ArrayList<>();
+        for (Map.Entry<String, Payments> merchant : merchants.entrySet()) {
+            Payments payments = merchant.getValue();
+            int from = payments.firstAfter(startTimestamp - 1L);
+            int to = payments.firstAfter(endTimestamp);
+            if (from < to) {
+                totals.add(new Total(merchant.getKey(), payments.sum(from, to)));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * The payments made to one merchant, as timestamps and prefix sums.
+     */
+    private static final class Payments {
+        private int[] timestamps = new int[INITIAL_CAPACITY];
+        private double[] amounts = new double[INITIAL_CAPACITY];
+        private double[] prefixSums = new double[INITIAL_CAPACITY];
+        private int size;
+
+        /**
+         * Adds a payment, keeping the payments in timestamp order. A late payment
+         * is moved back to its place and the prefix sums after it are recomputed.
+         *
+         * @param timestamp the timestamp of the payment
+         * @param amount the amount paid
+         */
+        void add(final int timestamp, final double amount) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+                prefixSums = Arrays.copyOf(prefixSums, size * 2);
+            }
+
+            int position = size;
+            while (position > 0 && timestamps[position - 1] > timestamp) {
+                timestamps[position] = timestamps[position - 1];
+                amounts[position] = amounts[position - 1];
+                position--;
+            }
+            timestamps[position] = timestamp;
+            amounts[position] = amount;
+            size++;
+
+            for (int i = position; i < size; i++) {
+                prefixSums[i] = i == 0 ? amounts[i] : prefixSums[i - 1] + amounts[i];
+            }
+        }
+
+        /**
+         * Sums the payments in a range of positions.
+         *
+         * @param from the first position, inclusive
+         * @param to the last position, exclusive
+         * @return the sum of the payments
+         */
+        double sum(final int from, final int to) {
+            if (from == 0) {
+                return prefixSums[to - 1];
+            }
+            if (to - from > DIRECT_SUM_LIMIT) {
+                return prefixSums[to - 1] - prefixSums[from - 1];
+            }
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += amounts[i];
+            }
+            return sum;
+        }
+
+        /**
+         * Finds the first payment newer than a timestamp.
+         *
+         * @param timestamp the timestamp to search for
+         * @return the position of the first payment with a greater timestamp
+         */
+        int firstAfter(final long timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestamps[middle] <= timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
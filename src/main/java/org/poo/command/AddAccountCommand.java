@@ -0,0 +1,34 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to open an account for a user.
+ */
+public final class AddAccountCommand extends BankCommand {
+    /**
+     * Constructs a AddAccountCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public AddAccountCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        getUserService().addAccount(
+                input.getEmail(),
+                input.getCurrency(),
+                input.getAccountType(),
+                input.getInterestRate(),
+                input.getTimestamp()
+        );
+    }
+}
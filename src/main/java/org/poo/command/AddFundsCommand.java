@@ -0,0 +1,31 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to deposit funds into an account.
+ */
+public final class AddFundsCommand extends BankCommand {
+    /**
+     * Constructs a AddFundsCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public AddFundsCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        getUserService().addFundsToAccount(
+                input.getAccount(),
+                input.getAmount()
+        );
+    }
+}
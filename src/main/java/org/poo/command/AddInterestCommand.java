@@ -0,0 +1,32 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to add the interest to a savings account.
+ */
+public final class AddInterestCommand extends BankCommand {
+    /**
+     * Constructs a AddInterestCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public AddInterestCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().addInterest(input.getAccount());
+        } catch (Exception e) {
+            output.add(describedError("addInterest", input.getTimestamp(), e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.poo.service.UserService;
+
+/**
+ * Base of the commands run against the bank. It holds the service the commands act on
+ * and the mapper building their results, and builds the error results most commands share.
+ */
+@Getter(AccessLevel.PROTECTED)
+public abstract class BankCommand implements Command {
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a command of a run.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    protected BankCommand(final UserService userService, final ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Builds an error result whose output describes what went wrong at a timestamp.
+     *
+     * @param command the name of the command, as shown in the output
+     * @param timestamp the timestamp of the command
+     * @param description the description of the error
+     * @return the result
+     */
+    protected final ObjectNode describedError(final String command, final int timestamp,
+                                              final String description) {
+        var errorNode = objectMapper.createObjectNode();
+        errorNode.put("command", command);
+        var outputNode = objectMapper.createObjectNode();
+        outputNode.put("timestamp", timestamp);
+        outputNode.put("description", description);
+        errorNode.set("output", outputNode);
+        errorNode.put("timestamp", timestamp);
+        return errorNode;
+    }
+
+    /**
+     * Builds an error result carrying only a status and a message.
+     *
+     * @param command the name of the command, as shown in the output
+     * @param message the message of the error
+     * @return the result
+     */
+    protected final ObjectNode statusError(final String command, final String message) {
+        var errorNode = objectMapper.createObjectNode();
+        errorNode.put("status", "error");
+        errorNode.put("command", command);
+        errorNode.put("message", message);
+        return errorNode;
+    }
+}
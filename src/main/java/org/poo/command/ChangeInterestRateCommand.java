@@ -0,0 +1,34 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to change the interest rate of a savings account.
+ */
+public final class ChangeInterestRateCommand extends BankCommand {
+    /**
+     * Constructs a ChangeInterestRateCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public ChangeInterestRateCommand(final UserService userService,
+                                     final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().changeInterestRate(input);
+        } catch (Exception e) {
+            output.add(describedError("changeInterestRate", input.getTimestamp(),
+                    e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to check the status of a card.
+ */
+public final class CheckCardStatusCommand extends BankCommand {
+    /**
+     * Constructs a CheckCardStatusCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public CheckCardStatusCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        if (getUserService().checkCardStatus(input.getCardNumber(), input.getTimestamp())) {
+            output.add(describedError("checkCardStatus", input.getTimestamp(),
+                    "Card not found"));
+        }
+    }
+}
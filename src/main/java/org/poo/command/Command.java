@@ -1,11 +1,21 @@
 package org.poo.command;
 
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+
+import java.io.IOException;
+
 /**
  * An interface to include all the commands that can be executed.
+ * A command is created once per run and executed for every input of its type.
  */
 public interface Command {
     /**
-     * javadoc
+     * Executes the command for one input.
+     *
+     * @param input the input of the command, with its arguments
+     * @param output the sink the results of the command are added to
+     * @throws IOException if a result cannot be written
      */
-    void execute();
+    void execute(CommandInput input, ResultSink output) throws IOException;
 }
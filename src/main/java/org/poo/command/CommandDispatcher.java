@@ -0,0 +1,74 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommandType;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The commands of a run, by type. Inputs are dispatched on the type resolved when they
+ * were decoded, so running a command needs neither its name nor a string comparison.
+ */
+public final class CommandDispatcher {
+    private final Map<CommandType, Command> commands = new EnumMap<>(CommandType.class);
+
+    /**
+     * Creates the commands of a run.
+     *
+     * @param userService the user service the commands act on
+     * @param objectMapper the mapper used to build the results
+     */
+    public CommandDispatcher(final UserService userService, final ObjectMapper objectMapper) {
+        commands.put(CommandType.PRINT_USERS, new PrintUsersCommand(userService, objectMapper));
+        commands.put(CommandType.ADD_ACCOUNT, new AddAccountCommand(userService, objectMapper));
+        commands.put(CommandType.ADD_FUNDS, new AddFundsCommand(userService, objectMapper));
+        commands.put(CommandType.CREATE_CARD, new CreateCardCommand(userService, objectMapper));
+        commands.put(CommandType.DELETE_ACCOUNT,
+                new DeleteAccountCommand(userService, objectMapper));
+        commands.put(CommandType.CREATE_ONE_TIME_CARD,
+                new CreateOneTimeCardCommand(userService, objectMapper));
+        commands.put(CommandType.DELETE_CARD, new DeleteCardCommand(userService, objectMapper));
+        commands.put(CommandType.SET_MINIMUM_BALANCE,
+                new SetMinimumBalanceCommand(userService, objectMapper));
+        commands.put(CommandType.PAY_ONLINE, new PayOnlineCommand(userService, objectMapper));
+        commands.put(CommandType.CHECK_CARD_STATUS,
+                new CheckCardStatusCommand(userService, objectMapper));
+        commands.put(CommandType.SEND_MONEY, new SendMoneyCommand(userService, objectMapper));
+        commands.put(CommandType.SET_ALIAS, new SetAliasCommand(userService, objectMapper));
+        commands.put(CommandType.PRINT_TRANSACTIONS,
+                new PrintTransactionsCommand(userService, objectMapper));
+        commands.put(CommandType.ADD_INTEREST, new AddInterestCommand(userService, objectMapper));
+        commands.put(CommandType.CHANGE_INTEREST_RATE,
+                new ChangeInterestRateCommand(userService, objectMapper));
+        commands.put(CommandType.SPLIT_PAYMENT,
+                new SplitPaymentCommand(userService, objectMapper));
+        commands.put(CommandType.REPORT, new ReportCommand(userService, objectMapper));
+        commands.put(CommandType.SPENDINGS_REPORT,
+                new SpendingsReportCommand(userService, objectMapper));
+
+        for (CommandType type : CommandType.values()) {
+            if (!commands.containsKey(type)) {
+                throw new IllegalStateException("No command registered for " + type);
+            }
+        }
+    }
+
+    /**
+     * Runs the command matching an input. Inputs of an unknown type are ignored.
+     *
+     * @param input the input of the command
+     * @param output the sink the results of the command are added to
+     * @throws IOException if a result cannot be written
+     */
+    public void dispatch(final CommandInput input, final ResultSink output) throws IOException {
+        CommandType type = input.getType();
+        if (type != null) {
+            commands.get(type).execute(input, output);
+        }
+    }
+}
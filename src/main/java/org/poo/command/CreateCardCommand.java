@@ -0,0 +1,32 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to create a card for an account.
+ */
+public final class CreateCardCommand extends BankCommand {
+    /**
+     * Constructs a CreateCardCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public CreateCardCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        getUserService().createCardForAccount(
+                input.getEmail(),
+                input.getAccount(),
+                input.getTimestamp()
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to delete an account, which must have no funds left.
+ */
+public final class DeleteAccountCommand extends BankCommand {
+    /**
+     * Constructs a DeleteAccountCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public DeleteAccountCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        var resultNode = getObjectMapper().createObjectNode();
+        resultNode.put("command", "deleteAccount");
+        var outputNode = getObjectMapper().createObjectNode();
+        try {
+            getUserService().deleteAccount(
+                    input.getEmail(),
+                    input.getAccount(),
+                    input.getTimestamp()
+            );
+
+            // Add success message to the output
+            outputNode.put("success", "Account deleted");
+        } catch (Exception e) {
+            // Add error message to the output
+            outputNode.put("error",
+                    "Account couldn't be deleted - see org.poo.transactions for details");
+        }
+        outputNode.put("timestamp", input.getTimestamp());
+        resultNode.set("output", outputNode);
+        resultNode.put("timestamp", input.getTimestamp());
+        output.add(resultNode);
+    }
+}
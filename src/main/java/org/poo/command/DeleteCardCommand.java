@@ -1,35 +1,33 @@
 package org.poo.command;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
 import org.poo.service.UserService;
 
+import java.io.IOException;
+
 /**
  * Command to delete a card.
  */
-public class DeleteCardCommand implements Command {
-
-    private final UserService userService;
-    private final String email;
-    private final String cardNumber;
-    private final int timestamp;
-
+public final class DeleteCardCommand extends BankCommand {
     /**
      * Constructs a DeleteCardCommand instance.
      *
      * @param userService the user service to handle the command
-     * @param email the email of the user
-     * @param cardNumber the card number to be deleted
-     * @param timestamp the timestamp of the command
+     * @param objectMapper the mapper used to build the results
      */
-    public DeleteCardCommand(final UserService userService, final String email,
-                             final String cardNumber, final int timestamp) {
-        this.userService = userService;
-        this.email = email;
-        this.cardNumber = cardNumber;
-        this.timestamp = timestamp;
+    public DeleteCardCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
     }
 
     @Override
-    public void execute() {
-        userService.deleteCard(email, cardNumber, timestamp);
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().deleteCard(input.getEmail(), input.getCardNumber(),
+                    input.getTimestamp());
+        } catch (Exception e) {
+            output.add(statusError("deleteCard", e.getMessage()));
+        }
     }
 }
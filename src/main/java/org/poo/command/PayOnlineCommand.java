@@ -0,0 +1,39 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to pay a commerciant online with a card.
+ */
+public final class PayOnlineCommand extends BankCommand {
+    /**
+     * Constructs a PayOnlineCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public PayOnlineCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().payOnline(
+                    input.getEmail(),
+                    input.getCardNumber(),
+                    input.getAmount(),
+                    input.getCurrency(),
+                    input.getTimestamp(),
+                    input.getCommerciant()
+            );
+        } catch (Exception e) {
+            output.add(describedError("payOnline", input.getTimestamp(), e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.model.User;
+import org.poo.service.UserService;
+import org.poo.transactions.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Command to print the transactions of a user.
+ */
+public final class PrintTransactionsCommand extends BankCommand {
+    /**
+     * Constructs a PrintTransactionsCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public PrintTransactionsCommand(final UserService userService,
+                                    final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            // Find the user by email
+            User user = getUserService().findUserByEmail(input.getEmail());
+
+            // Initialize the array of transactions
+            ArrayNode transactionsOutput = getObjectMapper().createArrayNode();
+
+            for (Transaction transaction : user.getTransactions()) {
+                // Written by the transaction itself when the output is saved
+                transactionsOutput.addPOJO(transaction);
+            }
+
+            var outputNode = getObjectMapper().createObjectNode();
+            outputNode.put("command", "printTransactions");
+            outputNode.set("output", transactionsOutput);
+            outputNode.put("timestamp", input.getTimestamp());
+            output.add(outputNode);
+
+        } catch (Exception e) {
+            // Generate an error message
+            var errorNode = getObjectMapper().createObjectNode();
+            errorNode.put("command", "printTransactions");
+            errorNode.putObject("output").put("description", e.getMessage());
+            errorNode.put("timestamp", input.getTimestamp());
+            output.add(errorNode);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to print a snapshot of all the users.
+ */
+public final class PrintUsersCommand extends BankCommand {
+    /**
+     * Constructs a PrintUsersCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public PrintUsersCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        // Create and add the snapshot of users to output
+        var printNode = getObjectMapper().createObjectNode();
+        printNode.put("command", "printUsers");
+        printNode.set("output", getUserService().getUsersSnapshot(getObjectMapper()));
+        printNode.put("timestamp", input.getTimestamp());
+        output.add(printNode);
+    }
+}
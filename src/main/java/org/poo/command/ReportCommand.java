@@ -0,0 +1,52 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.model.Report;
+import org.poo.service.UserService;
+import org.poo.transactions.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Command to report the transactions of an account in a time window.
+ */
+public final class ReportCommand extends BankCommand {
+    /**
+     * Constructs a ReportCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public ReportCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            Report report = getUserService().generateReport(input);
+            var reportNode = getObjectMapper().createObjectNode();
+            reportNode.put("command", "report");
+
+            var outputNode = getObjectMapper().createObjectNode();
+            outputNode.put("IBAN", input.getAccount());
+            outputNode.put("balance", report.getBalance());
+            outputNode.put("currency", report.getCurrency());
+
+            var transactionsArray = getObjectMapper().createArrayNode();
+            for (Transaction transaction : report.getTransactions()) {
+                transactionsArray.addPOJO(transaction);
+            }
+            outputNode.set("transactions", transactionsArray);
+
+            reportNode.set("output", outputNode);
+            reportNode.put("timestamp", input.getTimestamp());
+
+            output.add(reportNode);
+        } catch (Exception e) {
+            output.add(describedError("report", input.getTimestamp(), e.getMessage()));
+        }
+    }
+}
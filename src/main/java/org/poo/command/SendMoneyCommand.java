@@ -0,0 +1,35 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to transfer money between two accounts.
+ */
+public final class SendMoneyCommand extends BankCommand {
+    /**
+     * Constructs a SendMoneyCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public SendMoneyCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        getUserService().sendMoney(
+                input.getAccount(),
+                input.getAmount(),
+                input.getReceiver(),
+                input.getTimestamp(),
+                input.getDescription(),
+                input.getEmail()
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to give an account an alias.
+ */
+public final class SetAliasCommand extends BankCommand {
+    /**
+     * Constructs a SetAliasCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public SetAliasCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().setAlias(input.getEmail(), input.getAlias(), input.getAccount());
+        } catch (Exception e) {
+            output.add(statusError("setAlias", e.getMessage()));
+        }
+    }
+}
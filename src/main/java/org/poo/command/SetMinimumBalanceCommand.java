@@ -0,0 +1,36 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.service.UserService;
+
+import java.io.IOException;
+
+/**
+ * Command to set the minimum balance of an account.
+ */
+public final class SetMinimumBalanceCommand extends BankCommand {
+    /**
+     * Constructs a SetMinimumBalanceCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public SetMinimumBalanceCommand(final UserService userService,
+                                    final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            getUserService().setMinBalance(
+                    input.getAccount(),   // IBAN of the account
+                    input.getAmount()  // Minimum balance to set
+            );
+        } catch (Exception e) {
+            output.add(statusError("setMinBalance", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.poo.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.ResultSink;
+import org.poo.model.SpendingsReport;
+import org.poo.service.UserService;
+import org.poo.transactions.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Command to report the online payments of an account in a time window,
+ * with the total spent at every commerciant.
+ */
+public final class SpendingsReportCommand extends BankCommand {
+    /**
+     * Constructs a SpendingsReportCommand instance.
+     *
+     * @param userService the user service to handle the command
+     * @param objectMapper the mapper used to build the results
+     */
+    public SpendingsReportCommand(final UserService userService, final ObjectMapper objectMapper) {
+        super(userService, objectMapper);
+    }
+
+    @Override
+    public void execute(final CommandInput input, final ResultSink output) throws IOException {
+        try {
+            SpendingsReport spendingsReport = getUserService().generateSpendingsReport(input);
+
+            var reportNode = getObjectMapper().createObjectNode();
+            reportNode.put("command", "spendingsReport");
+
+            var outputNode = getObjectMapper().createObjectNode();
+            outputNode.put("IBAN", input.getAccount());
+            outputNode.put("balance", spendingsReport.getBalance());
+            outputNode.put("currency", spendingsReport.getCurrency());
+
+            var transactionsArray = getObjectMapper().createArrayNode();
+            for (Transaction transaction : spendingsReport.getTransactions()) {
+                transactionsArray.addPOJO(transaction);
+            }
+            outputNode.set("transactions", transactionsArray);
+
+            var commerciantsArray = getObjectMapper().createArrayNode();
+
+            for (var commerciant : spendingsReport.getCommerciants()) {
+                var commerciantNode = getObjectMapper().createObjectNode();
+                commerciantNode.put("commerciant", commerciant.commerciant());
+                commerciantNode.put("total", commerciant.total());
+                commerciantsArray.add(commerciantNode);
+            }
+
+            outputNode.set("commerciants", commerciantsArray);
+
+            reportNode.set("output", outputNode);
+            reportNode.put("timestamp", input.getTimestamp());
+
+            output.add(reportNode);
+        } catch (Exception e) {
+            if (e.getMessage().equalsIgnoreCase("account not found")) {
+                output.add(describedError("spendingsReport", input.getTimestamp(),
+                        e.getMessage()));
+                return;
+            }
+
+            var errorNode = getObjectMapper().createObjectNode();
+            errorNode.put("command", "spendingsReport");
+            errorNode.putObject("output").put("error", e.getMessage());
+            errorNode.put("timestamp", input.getTimestamp());
+            output.add(errorNode);
+        }
+    }
+}
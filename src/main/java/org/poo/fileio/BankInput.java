@@ -0,0 +1,51 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An opened input file: the users, exchange rates and commerciants, known up front,
+ * followed by the commands, read one at a time.
+ */
+public interface BankInput extends CommandSource, Closeable {
+    /**
+     * Returns the users of the input.
+     *
+     * @return the users, empty if the input has none
+     */
+    UserInput[] getUsers();
+
+    /**
+     * Returns the exchange rates of the input.
+     *
+     * @return the exchange rates, empty if the input has none
+     */
+    ExchangeInput[] getExchangeRates();
+
+    /**
+     * Returns the commerciants of the input.
+     *
+     * @return the commerciants, empty if the input has none
+     */
+    CommerciantInput[] getCommerciants();
+
+    /**
+     * Opens an input file, either a JSON file or a binary command log.
+     *
+     * @param mapper the mapper used for JSON files
+     * @param file the input file
+     * @param reuseCommands whether next() may return the same, refilled instance every time
+     * @return the opened input, positioned before its first command
+     * @throws IOException if the file cannot be read
+     */
+    static BankInput open(final ObjectMapper mapper, final File file,
+                          final boolean reuseCommands) throws IOException {
+        if (BinaryCommandLog.isBinary(file)) {
+            return new BinaryCommandReader(file, reuseCommands);
+        }
+        return new CommandReader(mapper, file, reuseCommands);
+    }
+}
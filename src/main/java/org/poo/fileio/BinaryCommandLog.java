@@ -0,0 +1,98 @@
+package org.poo.fileio;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of the binary command log, a compact encoding of an input file.
+ * <pre>
+ * log          = MAGIC VERSION users rates commerciants command* END_OF_COMMANDS
+ * users        = count (string string string)*            first name, last name, email
+ * rates        = count (string string double svarint)*     from, to, rate, timestamp
+ * commerciants = count (svarint string list)*              id, description, commerciants
+ * command      = type [string] fieldMask field*
+ * string       = NULL_STRING | NEW_STRING length utf8 | FIRST_STRING_ID + id
+ * list         = 0 for null | count + 1, followed by that many strings
+ * </pre>
+ * Counts and lengths are unsigned varints, ints are zigzag varints and doubles take
+ * 8 bytes. The type of a command is FIRST_COMMAND plus its CommandType ordinal; other
+ * names are written as NAMED_COMMAND followed by the name. The mask has one bit for
+ * every field that is not null or zero, and those fields follow in the order of the bits.
+ */
+final class BinaryCommandLog {
+    static final int MAGIC = 0x504F4F4C; // "POOL"
+    static final int VERSION = 1;
+
+    static final int END_OF_COMMANDS = 0;
+    static final int NAMED_COMMAND = 1;
+    static final int FIRST_COMMAND = 2;
+
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+    static final int FIRST_STRING_ID = 2;
+
+    // Fields of a command, in the order they are written
+    static final int EMAIL = 1;
+    static final int ACCOUNT = EMAIL << 1;
+    static final int CURRENCY = ACCOUNT << 1;
+    static final int AMOUNT = CURRENCY << 1;
+    static final int MIN_BALANCE = AMOUNT << 1;
+    static final int TARGET = MIN_BALANCE << 1;
+    static final int DESCRIPTION = TARGET << 1;
+    static final int CARD_NUMBER = DESCRIPTION << 1;
+    static final int COMMERCIANT = CARD_NUMBER << 1;
+    static final int TIMESTAMP = COMMERCIANT << 1;
+    static final int START_TIMESTAMP = TIMESTAMP << 1;
+    static final int END_TIMESTAMP = START_TIMESTAMP << 1;
+    static final int RECEIVER = END_TIMESTAMP << 1;
+    static final int ALIAS = RECEIVER << 1;
+    static final int ACCOUNT_TYPE = ALIAS << 1;
+    static final int INTEREST_RATE = ACCOUNT_TYPE << 1;
+    static final int ACCOUNTS = INTEREST_RATE << 1;
+
+    // Varints carry 7 bits per byte, the high bit tells that more bytes follow
+    static final int VARINT_BITS = 7;
+    static final int VARINT_PAYLOAD = 0x7F;
+    static final int VARINT_MORE = 0x80;
+    static final int MAX_VARINT_SHIFT = 28;
+
+    private BinaryCommandLog() {
+    }
+
+    /**
+     * Tells whether a file is a binary command log, by its first bytes.
+     *
+     * @param file the file to check
+     * @return true if the file starts with the magic number of the format
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isBinary(final File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = in.readNBytes(Integer.BYTES);
+            return header.length == Integer.BYTES && ByteBuffer.wrap(header).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Turns a signed int into an unsigned one, so that small negative values stay short.
+     *
+     * @param value the value to encode
+     * @return the zigzag encoding of the value
+     */
+    static int zigzag(final int value) {
+        return (value << 1) ^ (value >> (Integer.SIZE - 1));
+    }
+
+    /**
+     * Reverses zigzag.
+     *
+     * @param value the zigzag encoding
+     * @return the original value
+     */
+    static int unzigzag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
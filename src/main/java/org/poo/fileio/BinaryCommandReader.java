@@ -0,0 +1,269 @@
+package org.poo.fileio;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.poo.fileio.BinaryCommandLog.ACCOUNT;
+import static org.poo.fileio.BinaryCommandLog.ACCOUNTS;
+import static org.poo.fileio.BinaryCommandLog.ACCOUNT_TYPE;
+import static org.poo.fileio.BinaryCommandLog.ALIAS;
+import static org.poo.fileio.BinaryCommandLog.AMOUNT;
+import static org.poo.fileio.BinaryCommandLog.CARD_NUMBER;
+import static org.poo.fileio.BinaryCommandLog.COMMERCIANT;
+import static org.poo.fileio.BinaryCommandLog.CURRENCY;
+import static org.poo.fileio.BinaryCommandLog.DESCRIPTION;
+import static org.poo.fileio.BinaryCommandLog.EMAIL;
+import static org.poo.fileio.BinaryCommandLog.END_TIMESTAMP;
+import static org.poo.fileio.BinaryCommandLog.INTEREST_RATE;
+import static org.poo.fileio.BinaryCommandLog.MIN_BALANCE;
+import static org.poo.fileio.BinaryCommandLog.RECEIVER;
+import static org.poo.fileio.BinaryCommandLog.START_TIMESTAMP;
+import static org.poo.fileio.BinaryCommandLog.TARGET;
+import static org.poo.fileio.BinaryCommandLog.TIMESTAMP;
+
+/**
+ * Reads a binary command log (see BinaryCommandLog for the layout). Strings are read
+ * once and shared through the log's dictionary, so repeated values cost nothing.
+ */
+public final class BinaryCommandReader implements BankInput {
+    private static final int BUFFER_SIZE = 65536;
+
+    private final DataInputStream in;
+    private final boolean reuseCommands;
+    private final List<String> strings = new ArrayList<>();
+
+    private final UserInput[] users;
+    private final ExchangeInput[] exchangeRates;
+    private final CommerciantInput[] commerciants;
+
+    // Reused by every command when the caller allows it
+    private final CommandInput flyweight = new CommandInput();
+    private final List<String> accounts = new ArrayList<>();
+    private boolean ended;
+
+    /**
+     * Opens a log and reads everything but the commands.
+     *
+     * @param file the log file
+     * @param reuseCommands whether next() may return the same, refilled instance every time
+     * @throws IOException if the file cannot be read or is not a binary command log
+     */
+    public BinaryCommandReader(final File file, final boolean reuseCommands)
+            throws IOException {
+        this.reuseCommands = reuseCommands;
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file),
+                BUFFER_SIZE));
+        try {
+            if (in.readInt() != BinaryCommandLog.MAGIC) {
+                throw new IOException("Not a binary command log: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != BinaryCommandLog.VERSION) {
+                throw new IOException("Unsupported command log version " + version);
+            }
+            users = readUsers();
+            exchangeRates = readExchangeRates();
+            commerciants = readCommerciants();
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public UserInput[] getUsers() {
+        return users;
+    }
+
+    @Override
+    public ExchangeInput[] getExchangeRates() {
+        return exchangeRates;
+    }
+
+    @Override
+    public CommerciantInput[] getCommerciants() {
+        return commerciants;
+    }
+
+    /**
+     * Reads the next command of the log.
+     *
+     * @return the next command, or null once all of them were read
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public CommandInput next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        int type = in.readUnsignedByte();
+        if (type == BinaryCommandLog.END_OF_COMMANDS) {
+            ended = true;
+            return null;
+        }
+
+        CommandInput command = reuseCommands ? flyweight : new CommandInput();
+        command.clear();
+        if (type == BinaryCommandLog.NAMED_COMMAND) {
+            command.setCommand(readString());
+        } else {
+            CommandType known = CommandType.fromOrdinal(type - BinaryCommandLog.FIRST_COMMAND);
+            if (known == null) {
+                throw new IOException("Unknown command type " + type);
+            }
+            command.setType(known);
+        }
+
+        int mask = readVarint();
+        if ((mask & EMAIL) != 0) {
+            command.setEmail(readString());
+        }
+        if ((mask & ACCOUNT) != 0) {
+            command.setAccount(readString());
+        }
+        if ((mask & CURRENCY) != 0) {
+            command.setCurrency(readString());
+        }
+        if ((mask & AMOUNT) != 0) {
+            command.setAmount(in.readDouble());
+        }
+        if ((mask & MIN_BALANCE) != 0) {
+            command.setMinBalance(in.readDouble());
+        }
+        if ((mask & TARGET) != 0) {
+            command.setTarget(readString());
+        }
+        if ((mask & DESCRIPTION) != 0) {
+            command.setDescription(readString());
+        }
+        if ((mask & CARD_NUMBER) != 0) {
+            command.setCardNumber(readString());
+        }
+        if ((mask & COMMERCIANT) != 0) {
+            command.setCommerciant(readString());
+        }
+        if ((mask & TIMESTAMP) != 0) {
+            command.setTimestamp(readSignedVarint());
+        }
+        if ((mask & START_TIMESTAMP) != 0) {
+            command.setStartTimestamp(readSignedVarint());
+        }
+        if ((mask & END_TIMESTAMP) != 0) {
+            command.setEndTimestamp(readSignedVarint());
+        }
+        if ((mask & RECEIVER) != 0) {
+            command.setReceiver(readString());
+        }
+        if ((mask & ALIAS) != 0) {
+            command.setAlias(readString());
+        }
+        if ((mask & ACCOUNT_TYPE) != 0) {
+            command.setAccountType(readString());
+        }
+        if ((mask & INTEREST_RATE) != 0) {
+            command.setInterestRate(in.readDouble());
+        }
+        if ((mask & ACCOUNTS) != 0) {
+            command.setAccounts(readList(reuseCommands ? accounts : new ArrayList<>()));
+        }
+        return command;
+    }
+
+    /**
+     * Closes the log file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private UserInput[] readUsers() throws IOException {
+        UserInput[] result = new UserInput[readVarint()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new UserInput();
+            result[i].setFirstName(readString());
+            result[i].setLastName(readString());
+            result[i].setEmail(readString());
+        }
+        return result;
+    }
+
+    private ExchangeInput[] readExchangeRates() throws IOException {
+        ExchangeInput[] result = new ExchangeInput[readVarint()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new ExchangeInput();
+            result[i].setFrom(readString());
+            result[i].setTo(readString());
+            result[i].setRate(in.readDouble());
+            result[i].setTimestamp(readSignedVarint());
+        }
+        return result;
+    }
+
+    private CommerciantInput[] readCommerciants() throws IOException {
+        CommerciantInput[] result = new CommerciantInput[readVarint()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new CommerciantInput();
+            result[i].setId(readSignedVarint());
+            result[i].setDescription(readString());
+            result[i].setCommerciants(readList(new ArrayList<>()));
+        }
+        return result;
+    }
+
+    private List<String> readList(final List<String> values) throws IOException {
+        int size = readVarint();
+        if (size == 0) {
+            return null;
+        }
+        values.clear();
+        for (int i = 1; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private String readString() throws IOException {
+        int reference = readVarint();
+        if (reference == BinaryCommandLog.NULL_STRING) {
+            return null;
+        }
+        if (reference != BinaryCommandLog.NEW_STRING) {
+            int id = reference - BinaryCommandLog.FIRST_STRING_ID;
+            if (id >= strings.size()) {
+                throw new IOException("Unknown string id " + id);
+            }
+            return strings.get(id);
+        }
+        byte[] bytes = new byte[readVarint()];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private int readSignedVarint() throws IOException {
+        return BinaryCommandLog.unzigzag(readVarint());
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift <= BinaryCommandLog.MAX_VARINT_SHIFT;
+                shift += BinaryCommandLog.VARINT_BITS) {
+            int b = in.readUnsignedByte();
+            value |= (b & BinaryCommandLog.VARINT_PAYLOAD) << shift;
+            if ((b & BinaryCommandLog.VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,251 @@
+package org.poo.fileio;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.poo.fileio.BinaryCommandLog.ACCOUNT;
+import static org.poo.fileio.BinaryCommandLog.ACCOUNTS;
+import static org.poo.fileio.BinaryCommandLog.ACCOUNT_TYPE;
+import static org.poo.fileio.BinaryCommandLog.ALIAS;
+import static org.poo.fileio.BinaryCommandLog.AMOUNT;
+import static org.poo.fileio.BinaryCommandLog.CARD_NUMBER;
+import static org.poo.fileio.BinaryCommandLog.COMMERCIANT;
+import static org.poo.fileio.BinaryCommandLog.CURRENCY;
+import static org.poo.fileio.BinaryCommandLog.DESCRIPTION;
+import static org.poo.fileio.BinaryCommandLog.EMAIL;
+import static org.poo.fileio.BinaryCommandLog.END_TIMESTAMP;
+import static org.poo.fileio.BinaryCommandLog.INTEREST_RATE;
+import static org.poo.fileio.BinaryCommandLog.MIN_BALANCE;
+import static org.poo.fileio.BinaryCommandLog.RECEIVER;
+import static org.poo.fileio.BinaryCommandLog.START_TIMESTAMP;
+import static org.poo.fileio.BinaryCommandLog.TARGET;
+import static org.poo.fileio.BinaryCommandLog.TIMESTAMP;
+
+/**
+ * Writes a binary command log (see BinaryCommandLog for the layout).
+ */
+public final class BinaryCommandWriter implements Closeable {
+    private static final int BUFFER_SIZE = 65536;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private boolean headerWritten;
+
+    /**
+     * Creates the log file.
+     *
+     * @param file the log file, created or truncated
+     * @throws IOException if the file cannot be created
+     */
+    public BinaryCommandWriter(final File file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file),
+                BUFFER_SIZE));
+        out.writeInt(BinaryCommandLog.MAGIC);
+        out.writeByte(BinaryCommandLog.VERSION);
+    }
+
+    /**
+     * Converts a whole input to a binary command log.
+     *
+     * @param input the input to convert, positioned before its first command
+     * @param file the log file, created or truncated
+     * @return the number of commands written
+     * @throws IOException if the input cannot be read or the log written
+     */
+    public static int convert(final BankInput input, final File file) throws IOException {
+        int count = 0;
+        try (BinaryCommandWriter writer = new BinaryCommandWriter(file)) {
+            writer.writeHeader(input.getUsers(), input.getExchangeRates(),
+                    input.getCommerciants());
+            for (CommandInput command = input.next(); command != null; command = input.next()) {
+                writer.writeCommand(command);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the users, exchange rates and commerciants. Must be called once, first.
+     *
+     * @param users the users of the input
+     * @param exchangeRates the exchange rates of the input
+     * @param commerciants the commerciants of the input
+     * @throws IOException if the log cannot be written
+     */
+    public void writeHeader(final UserInput[] users, final ExchangeInput[] exchangeRates,
+                            final CommerciantInput[] commerciants) throws IOException {
+        if (headerWritten) {
+            throw new IllegalStateException("The header was already written");
+        }
+        headerWritten = true;
+
+        writeVarint(users.length);
+        for (UserInput user : users) {
+            writeString(user.getFirstName());
+            writeString(user.getLastName());
+            writeString(user.getEmail());
+        }
+        writeVarint(exchangeRates.length);
+        for (ExchangeInput rate : exchangeRates) {
+            writeString(rate.getFrom());
+            writeString(rate.getTo());
+            out.writeDouble(rate.getRate());
+            writeVarint(BinaryCommandLog.zigzag(rate.getTimestamp()));
+        }
+        writeVarint(commerciants.length);
+        for (CommerciantInput commerciant : commerciants) {
+            writeVarint(BinaryCommandLog.zigzag(commerciant.getId()));
+            writeString(commerciant.getDescription());
+            writeList(commerciant.getCommerciants());
+        }
+    }
+
+    /**
+     * Appends a command.
+     *
+     * @param command the command to be written
+     * @throws IOException if the log cannot be written
+     */
+    public void writeCommand(final CommandInput command) throws IOException {
+        if (!headerWritten) {
+            throw new IllegalStateException("The header must be written first");
+        }
+        CommandType type = command.getType();
+        if (type == null) {
+            out.writeByte(BinaryCommandLog.NAMED_COMMAND);
+            writeString(command.getCommand());
+        } else {
+            out.writeByte(BinaryCommandLog.FIRST_COMMAND + type.ordinal());
+        }
+
+        int mask = (command.getEmail() != null ? EMAIL : 0)
+                | (command.getAccount() != null ? ACCOUNT : 0)
+                | (command.getCurrency() != null ? CURRENCY : 0)
+                | (isSet(command.getAmount()) ? AMOUNT : 0)
+                | (isSet(command.getMinBalance()) ? MIN_BALANCE : 0)
+                | (command.getTarget() != null ? TARGET : 0)
+                | (command.getDescription() != null ? DESCRIPTION : 0)
+                | (command.getCardNumber() != null ? CARD_NUMBER : 0)
+                | (command.getCommerciant() != null ? COMMERCIANT : 0)
+                | (command.getTimestamp() != 0 ? TIMESTAMP : 0)
+                | (command.getStartTimestamp() != 0 ? START_TIMESTAMP : 0)
+                | (command.getEndTimestamp() != 0 ? END_TIMESTAMP : 0)
+                | (command.getReceiver() != null ? RECEIVER : 0)
+                | (command.getAlias() != null ? ALIAS : 0)
+                | (command.getAccountType() != null ? ACCOUNT_TYPE : 0)
+                | (isSet(command.getInterestRate()) ? INTEREST_RATE : 0)
+                | (command.getAccounts() != null ? ACCOUNTS : 0);
+        writeVarint(mask);
+
+        writeString(mask, EMAIL, command.getEmail());
+        writeString(mask, ACCOUNT, command.getAccount());
+        writeString(mask, CURRENCY, command.getCurrency());
+        writeDouble(mask, AMOUNT, command.getAmount());
+        writeDouble(mask, MIN_BALANCE, command.getMinBalance());
+        writeString(mask, TARGET, command.getTarget());
+        writeString(mask, DESCRIPTION, command.getDescription());
+        writeString(mask, CARD_NUMBER, command.getCardNumber());
+        writeString(mask, COMMERCIANT, command.getCommerciant());
+        writeInt(mask, TIMESTAMP, command.getTimestamp());
+        writeInt(mask, START_TIMESTAMP, command.getStartTimestamp());
+        writeInt(mask, END_TIMESTAMP, command.getEndTimestamp());
+        writeString(mask, RECEIVER, command.getReceiver());
+        writeString(mask, ALIAS, command.getAlias());
+        writeString(mask, ACCOUNT_TYPE, command.getAccountType());
+        writeDouble(mask, INTEREST_RATE, command.getInterestRate());
+        if ((mask & ACCOUNTS) != 0) {
+            writeList(command.getAccounts());
+        }
+    }
+
+    /**
+     * Ends the commands and closes the file.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!headerWritten) {
+                writeHeader(new UserInput[0], new ExchangeInput[0], new CommerciantInput[0]);
+            }
+            out.writeByte(BinaryCommandLog.END_OF_COMMANDS);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static boolean isSet(final double value) {
+        return Double.doubleToRawLongBits(value) != 0;
+    }
+
+    private void writeString(final int mask, final int field, final String value)
+            throws IOException {
+        if ((mask & field) != 0) {
+            writeString(value);
+        }
+    }
+
+    private void writeDouble(final int mask, final int field, final double value)
+            throws IOException {
+        if ((mask & field) != 0) {
+            out.writeDouble(value);
+        }
+    }
+
+    private void writeInt(final int mask, final int field, final int value)
+            throws IOException {
+        if ((mask & field) != 0) {
+            writeVarint(BinaryCommandLog.zigzag(value));
+        }
+    }
+
+    private void writeList(final List<String> values) throws IOException {
+        if (values == null) {
+            writeVarint(0);
+            return;
+        }
+        writeVarint(values.size() + 1);
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    private void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeVarint(BinaryCommandLog.NULL_STRING);
+            return;
+        }
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            writeVarint(BinaryCommandLog.FIRST_STRING_ID + id);
+            return;
+        }
+
+        // A string is spelled out the first time only, then referred to by its id
+        stringIds.put(value, stringIds.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(BinaryCommandLog.NEW_STRING);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~BinaryCommandLog.VARINT_PAYLOAD) != 0) {
+            out.writeByte((remaining & BinaryCommandLog.VARINT_PAYLOAD)
+                    | BinaryCommandLog.VARINT_MORE);
+            remaining >>>= BinaryCommandLog.VARINT_BITS;
+        }
+        out.writeByte(remaining);
+    }
+}
@@ -0,0 +1,150 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes commands by hand, straight from the parser tokens, instead of binding them
+ * by reflection. The decoder can fill one reusable CommandInput (and accounts list) over
+ * and over; short string values are interned, so repeated command names, currencies or
+ * IBANs are not allocated again.
+ * <p>
+ * Values are coerced the way the default ObjectMapper binding coerces them.
+ */
+final class CommandDecoder {
+    private final boolean failOnUnknownProperties;
+    private final StringInterner strings = new StringInterner();
+
+    // Reused by every decode that asks for it
+    private final CommandInput flyweight = new CommandInput();
+    private final List<String> accounts = new ArrayList<>();
+
+    /**
+     * Constructs a CommandDecoder.
+     *
+     * @param failOnUnknownProperties whether an unknown field is an error or is skipped
+     */
+    CommandDecoder(final boolean failOnUnknownProperties) {
+        this.failOnUnknownProperties = failOnUnknownProperties;
+    }
+
+    /**
+     * Decodes the command object the parser is positioned on.
+     *
+     * @param parser the parser, positioned on the START_OBJECT of the command
+     * @param reuse whether to fill the shared instance, which the next decode overwrites
+     * @return the decoded command
+     * @throws IOException if the command cannot be read
+     */
+    CommandInput decode(final JsonParser parser, final boolean reuse) throws IOException {
+        CommandInput command = reuse ? flyweight : new CommandInput();
+        command.clear();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "command" -> command.setCommand(text(parser));
+                case "email" -> command.setEmail(text(parser));
+                case "account" -> command.setAccount(text(parser));
+                case "currency" -> command.setCurrency(text(parser));
+                case "amount" -> command.setAmount(decimal(parser));
+                case "minBalance" -> command.setMinBalance(decimal(parser));
+                case "target" -> command.setTarget(text(parser));
+                case "description" -> command.setDescription(text(parser));
+                case "cardNumber" -> command.setCardNumber(text(parser));
+                case "commerciant" -> command.setCommerciant(text(parser));
+                case "timestamp" -> command.setTimestamp(integer(parser));
+                case "startTimestamp" -> command.setStartTimestamp(integer(parser));
+                case "endTimestamp" -> command.setEndTimestamp(integer(parser));
+                case "receiver" -> command.setReceiver(text(parser));
+                case "alias" -> command.setAlias(text(parser));
+                case "accountType" -> command.setAccountType(text(parser));
+                case "interestRate" -> command.setInterestRate(decimal(parser));
+                case "accounts" -> command.setAccounts(
+                        texts(parser, reuse ? accounts : new ArrayList<>()));
+                default -> unknown(parser, name);
+            }
+        }
+        return command;
+    }
+
+    private String text(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return strings.intern(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        throw MismatchedInputException.from(parser, String.class,
+                "Cannot read a String from " + token);
+    }
+
+    private List<String> texts(final JsonParser parser, final List<String> values)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(parser, List.class,
+                    "Cannot read a list from " + token);
+        }
+        values.clear();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(text(parser));
+        }
+        return values;
+    }
+
+    private double decimal(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            return text.isEmpty() ? 0 : Double.parseDouble(text);
+        }
+        throw MismatchedInputException.from(parser, double.class,
+                "Cannot read a number from " + token);
+    }
+
+    private int integer(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (int) parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            return text.isEmpty() ? 0 : Integer.parseInt(text);
+        }
+        throw MismatchedInputException.from(parser, int.class,
+                "Cannot read an integer from " + token);
+    }
+
+    private void unknown(final JsonParser parser, final String name) throws IOException {
+        if (failOnUnknownProperties) {
+            throw UnrecognizedPropertyException.from(parser, CommandInput.class, name, null);
+        }
+        parser.skipChildren();
+    }
+}
@@ -9,6 +9,8 @@ import java.util.List;
 @NoArgsConstructor
 public final class CommandInput {
     private String command;
+    // The command, resolved from its name once, when the input is decoded
+    private CommandType type;
     private String email;
     private String account;
     private String currency;
@@ -27,4 +29,49 @@ public final class CommandInput {
     private String accountType;
     private double interestRate;
     private List<String> accounts;
+
+    /**
+     * Sets the name of the command and resolves its type.
+     *
+     * @param command the name of the command
+     */
+    public void setCommand(final String command) {
+        this.command = command;
+        this.type = CommandType.fromName(command);
+    }
+
+    /**
+     * Sets the type of the command, along with its name.
+     *
+     * @param type the type of the command
+     */
+    public void setType(final CommandType type) {
+        this.type = type;
+        this.command = type == null ? null : type.getCommandName();
+    }
+
+    /**
+     * Resets every field to its default value, so that the instance can be filled again.
+     */
+    public void clear() {
+        command = null;
+        type = null;
+        email = null;
+        account = null;
+        currency = null;
+        amount = 0;
+        minBalance = 0;
+        target = null;
+        description = null;
+        cardNumber = null;
+        commerciant = null;
+        timestamp = 0;
+        startTimestamp = 0;
+        endTimestamp = 0;
+        receiver = null;
+        alias = null;
+        accountType = null;
+        interestRate = 0;
+        accounts = null;
+    }
 }
@@ -0,0 +1,174 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads an input file as a stream. The users, exchange rates and commerciants are read
+ * up front, then the commands are bound one at a time, as they are asked for.
+ * <p>
+ * Commands can only be streamed once the users and exchange rates are known. If the file
+ * lists the commands before them, the commands are buffered until the rest of the file
+ * has been read, like a full ObjectInput binding would.
+ * <p>
+ * Commands are decoded by a CommandDecoder. When the reader is asked to reuse commands,
+ * every call to next() returns the same instance, valid only until the following call.
+ */
+public final class CommandReader implements BankInput {
+    private static final String USERS = "users";
+    private static final String EXCHANGE_RATES = "exchangeRates";
+    private static final String COMMERCIANTS = "commerciants";
+    private static final String COMMANDS = "commands";
+
+    private final JsonParser parser;
+    private final ObjectMapper mapper;
+    private final CommandDecoder decoder;
+    private final boolean reuseCommands;
+
+    private UserInput[] users;
+    private ExchangeInput[] exchangeRates;
+    private CommerciantInput[] commerciants;
+
+    // Commands read before the rest of the file, when it lists them first
+    private final Deque<CommandInput> buffered = new ArrayDeque<>();
+    // Whether the parser is inside the commands array
+    private boolean streaming;
+
+    /**
+     * Opens an input file and reads everything but the commands.
+     *
+     * @param mapper the mapper used to bind the values
+     * @param file the input file
+     * @param reuseCommands whether next() may return the same, refilled instance every time
+     * @throws IOException if the file cannot be read or is not a JSON object
+     */
+    public CommandReader(final ObjectMapper mapper, final File file,
+                         final boolean reuseCommands) throws IOException {
+        this.mapper = mapper;
+        this.decoder = new CommandDecoder(
+                mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        this.reuseCommands = reuseCommands;
+        this.parser = mapper.getFactory().createParser(file);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in " + file);
+            }
+            readSections();
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the users of the input.
+     *
+     * @return the users, empty if the file has none
+     */
+    @Override
+    public UserInput[] getUsers() {
+        return users == null ? new UserInput[0] : users;
+    }
+
+    /**
+     * Returns the exchange rates of the input.
+     *
+     * @return the exchange rates, empty if the file has none
+     */
+    @Override
+    public ExchangeInput[] getExchangeRates() {
+        return exchangeRates == null ? new ExchangeInput[0] : exchangeRates;
+    }
+
+    /**
+     * Returns the commerciants of the input.
+     *
+     * @return the commerciants, empty if the file has none
+     */
+    @Override
+    public CommerciantInput[] getCommerciants() {
+        return commerciants == null ? new CommerciantInput[0] : commerciants;
+    }
+
+    /**
+     * Reads the next command of the input.
+     *
+     * @return the next command, or null once all of them were read
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public CommandInput next() throws IOException {
+        if (!buffered.isEmpty()) {
+            return buffered.poll();
+        }
+        if (!streaming) {
+            return null;
+        }
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            return decoder.decode(parser, reuseCommands);
+        }
+
+        // The commands are over, the sections after them still have to be read
+        streaming = false;
+        readSections();
+        return buffered.poll();
+    }
+
+    /**
+     * Closes the input file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Reads the top-level fields until the commands can be streamed or the object ends.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private void readSections() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case USERS -> users = mapper.readValue(parser, UserInput[].class);
+                case EXCHANGE_RATES ->
+                        exchangeRates = mapper.readValue(parser, ExchangeInput[].class);
+                case COMMERCIANTS ->
+                        commerciants = mapper.readValue(parser, CommerciantInput[].class);
+                case COMMANDS -> {
+                    if (value != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    } else if (users != null && exchangeRates != null) {
+                        streaming = true;
+                        return;
+                    } else {
+                        bufferCommands();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a whole commands array into memory.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private void bufferCommands() throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            buffered.add(decoder.decode(parser, false));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.poo.fileio;
+
+import java.io.IOException;
+
+/**
+ * A source of commands, read one at a time.
+ */
+public interface CommandSource {
+    /**
+     * Reads the next command.
+     *
+     * @return the next command, or null once all of them were read
+     * @throws IOException if the commands cannot be read
+     */
+    CommandInput next() throws IOException;
+}
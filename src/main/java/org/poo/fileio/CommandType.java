@@ -0,0 +1,72 @@
+package org.poo.fileio;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The commands of the input, by the name they have in the JSON files.
+ */
+public enum CommandType {
+    PRINT_USERS("printUsers"),
+    ADD_ACCOUNT("addAccount"),
+    ADD_FUNDS("addFunds"),
+    CREATE_CARD("createCard"),
+    DELETE_ACCOUNT("deleteAccount"),
+    CREATE_ONE_TIME_CARD("createOneTimeCard"),
+    DELETE_CARD("deleteCard"),
+    SET_MINIMUM_BALANCE("setMinimumBalance"),
+    PAY_ONLINE("payOnline"),
+    CHECK_CARD_STATUS("checkCardStatus"),
+    SEND_MONEY("sendMoney"),
+    SET_ALIAS("setAlias"),
+    PRINT_TRANSACTIONS("printTransactions"),
+    ADD_INTEREST("addInterest"),
+    CHANGE_INTEREST_RATE("changeInterestRate"),
+    SPLIT_PAYMENT("splitPayment"),
+    REPORT("report"),
+    SPENDINGS_REPORT("spendingsReport");
+
+    private static final CommandType[] VALUES = values();
+    private static final Map<String, CommandType> BY_NAME = new HashMap<>();
+
+    static {
+        for (CommandType type : VALUES) {
+            BY_NAME.put(type.commandName, type);
+        }
+    }
+
+    private final String commandName;
+
+    CommandType(final String commandName) {
+        this.commandName = commandName;
+    }
+
+    /**
+     * Returns the name of the command, as written in the input.
+     *
+     * @return the command name
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Finds a command by its name.
+     *
+     * @param commandName the name of the command, may be null
+     * @return the command, or null if no command has that name
+     */
+    public static CommandType fromName(final String commandName) {
+        return commandName == null ? null : BY_NAME.get(commandName);
+    }
+
+    /**
+     * Finds a command by its ordinal.
+     *
+     * @param ordinal the ordinal of the command
+     * @return the command, or null if the ordinal is out of range
+     */
+    public static CommandType fromOrdinal(final int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
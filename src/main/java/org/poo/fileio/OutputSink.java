@@ -0,0 +1,60 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the results of a run as one JSON array, streaming every result to the file as
+ * soon as it is added. The bytes are the same as writing the whole array at the end
+ * with the same ObjectWriter (e.g. one with the default pretty printer).
+ */
+public final class OutputSink implements ResultSink, Closeable {
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the output file and starts the array of results.
+     *
+     * @param writer the writer whose settings (pretty printer, attributes) are used
+     * @param file the output file, created or truncated
+     * @throws IOException if the file cannot be written
+     */
+    public OutputSink(final ObjectWriter writer, final File file) throws IOException {
+        // The generator buffers the output itself, there is no need to flush every result
+        this.writer = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = this.writer.createGenerator(file, JsonEncoding.UTF8);
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the next result.
+     *
+     * @param result the result to be written
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void add(final JsonNode result) throws IOException {
+        writer.writeValue(generator, result);
+    }
+
+    /**
+     * Ends the array of results and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * Receives the results of the commands, in the order they are produced.
+ */
+public interface ResultSink {
+    /**
+     * Takes the next result.
+     *
+     * @param result the result of a command
+     * @throws IOException if the result cannot be written
+     */
+    void add(JsonNode result) throws IOException;
+}
@@ -0,0 +1,62 @@
+package org.poo.fileio;
+
+/**
+ * Returns one shared String for every distinct short value read by a parser, looked up
+ * straight from the parser's character buffer, so a repeated value allocates nothing.
+ * The table has a fixed size; once it is half full, new values are simply not shared.
+ */
+final class StringInterner {
+    private static final int CAPACITY = 8192;
+    private static final int MAX_ENTRIES = CAPACITY / 2;
+    private static final int MAX_LENGTH = 64;
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final String[] table = new String[CAPACITY];
+    private int size;
+
+    /**
+     * Returns the string made of a range of characters.
+     *
+     * @param chars the buffer holding the characters
+     * @param offset the position of the first character
+     * @param length the number of characters
+     * @return a shared string if the value is short enough, a new one otherwise
+     */
+    String intern(final char[] chars, final int offset, final int length) {
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = HASH_MULTIPLIER * hash + chars[offset + i];
+        }
+
+        int slot = (hash ^ (hash >>> Short.SIZE)) & (CAPACITY - 1);
+        while (table[slot] != null) {
+            if (matches(table[slot], chars, offset, length)) {
+                return table[slot];
+            }
+            slot = (slot + 1) & (CAPACITY - 1);
+        }
+
+        String value = new String(chars, offset, length);
+        if (size < MAX_ENTRIES) {
+            table[slot] = value;
+            size++;
+        }
+        return value;
+    }
+
+    private static boolean matches(final String value, final char[] chars, final int offset,
+                                   final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
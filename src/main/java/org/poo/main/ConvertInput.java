@@ -0,0 +1,36 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.BankInput;
+import org.poo.fileio.BinaryCommandWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts an input file to a binary command log, which Main.action can run directly.
+ * Usage: ConvertInput &lt;input.json&gt; &lt;output.bin&gt;
+ */
+public final class ConvertInput {
+    private static final int ARGUMENTS = 2;
+
+    private ConvertInput() {
+    }
+
+    /**
+     * Runs the conversion.
+     *
+     * @param args the input file and the log file to write
+     * @throws IOException if the input cannot be read or the log written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != ARGUMENTS) {
+            System.err.println("Usage: ConvertInput <input.json> <output.bin>");
+            System.exit(1);
+        }
+        try (BankInput input = BankInput.open(new ObjectMapper(), new File(args[0]), true)) {
+            int commands = BinaryCommandWriter.convert(input, new File(args[1]));
+            System.out.println("Wrote " + commands + " commands to " + args[1]);
+        }
+    }
+}
@@ -2,32 +2,37 @@ package org.poo.main;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.checker.Checker;
 import org.poo.checker.CheckerConstants;
-import org.poo.command.Command;
-import org.poo.command.DeleteCardCommand;
+import org.poo.command.CommandDispatcher;
+import org.poo.fileio.BankInput;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommandSource;
 import org.poo.fileio.ExchangeInput;
-import org.poo.fileio.ObjectInput;
-import org.poo.account.Account;
-import org.poo.model.Report;
-import org.poo.model.SpendingsReport;
-import org.poo.transactions.Transaction;
+import org.poo.fileio.OutputSink;
+import org.poo.fileio.ResultSink;
+import org.poo.transactions.TransactionJsonCache;
+import org.poo.transactions.TransactionStore;
 import org.poo.model.User;
 import org.poo.service.CurrencyExchangeService;
+import org.poo.service.RunContext;
 import org.poo.service.UserService;
-import org.poo.utils.Utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implementation.
@@ -40,8 +45,9 @@ public final class Main {
     }
 
     /**
-     * DO NOT MODIFY MAIN METHOD
-     * Call the checker
+     * Runs every input file, then calls the checker.
+     * The files are handed to runAll, which runs them one after another or on a pool
+     * of workers (see RunOptions.WORKERS); all of them are done before the scoring.
      * @param args from command line
      * @throws IOException in case of exceptions to reading / writing
      */
@@ -62,16 +68,71 @@ public final class Main {
                 sorted(Comparator.comparingInt(Main::fileConsumer))
                 .toList();
 
-        for (File file : sortedFiles) {
-            String filepath = CheckerConstants.OUT_PATH + file.getName();
-            File out = new File(filepath);
-            boolean isCreated = out.createNewFile();
-            if (isCreated) {
-                action(file.getName(), filepath);
+        runAll(sortedFiles, RunOptions.fromSystemProperties().getWorkers());
+
+        Checker.calculateScore();
+    }
+
+    /**
+     * Runs the input files, one after another or on a pool of workers. Every run has its
+     * own bank and its own output file, so runs on different workers do not share state.
+     *
+     * @param files the input files, in the order they are started in
+     * @param workers the number of files run at the same time
+     * @throws IOException if a run fails to read or write
+     */
+    private static void runAll(final List<File> files, final int workers) throws IOException {
+        ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers) : null;
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (File file : files) {
+                String filepath = CheckerConstants.OUT_PATH + file.getName();
+                File out = new File(filepath);
+                boolean isCreated = out.createNewFile();
+                if (!isCreated) {
+                    continue;
+                }
+                if (pool == null) {
+                    action(file.getName(), filepath);
+                } else {
+                    runs.add(pool.submit(() -> {
+                        action(file.getName(), filepath);
+                        return null;
+                    }));
+                }
+            }
+            // Wait for every run, reporting the first failure in input order
+            for (Future<?> run : runs) {
+                await(run);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
             }
         }
+    }
 
-        Checker.calculateScore();
+    /**
+     * Waits for a run on the worker pool and rethrows its failure.
+     *
+     * @param run the submitted run
+     * @throws IOException if the run failed to read or write
+     */
+    private static void await(final Future<?> run) throws IOException {
+        try {
+            run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the runs");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
     /**
@@ -82,350 +143,104 @@ public final class Main {
     public static void action(final String filePath1, final String filePath2) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
         File file = new File(CheckerConstants.TESTS_PATH + filePath1);
-        ObjectInput inputData = objectMapper.readValue(file, ObjectInput.class);
+        RunOptions options = RunOptions.fromSystemProperties();
+
+        // Commands are handed to another thread when pipelined, so they cannot be reused
+        // The input is either a JSON file or a binary command log
+        // The transaction store is released, with its journal, once the run is over
+        try (BankInput input = BankInput.open(objectMapper, file, !options.isPipelined());
+             TransactionStore transactionStore = createTransactionStore(options)) {
+            run(input, transactionStore, objectMapper, options, filePath2);
+        }
+    }
 
-        // Reset random generators
-        Utils.resetRandom();
+    /**
+     * Runs the commands of an input as they are read and writes the results.
+     *
+     * @param input the input, positioned before its first command
+     * @param transactionStore the store holding the transactions of the run
+     * @param objectMapper the mapper used to build and write the output
+     * @param options the options of the run
+     * @param filePath2 for output file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    private static void run(final BankInput input, final TransactionStore transactionStore,
+                            final ObjectMapper objectMapper, final RunOptions options,
+                            final String filePath2)
+            throws IOException {
 
         // Initialize CurrencyExchangeService
         CurrencyExchangeService currencyExchangeService = new CurrencyExchangeService();
 
         // Load exchange rates
-        for (ExchangeInput exchangeInput : inputData.getExchangeRates()) {
+        for (ExchangeInput exchangeInput : input.getExchangeRates()) {
             currencyExchangeService.addExchangeRate(exchangeInput.getFrom(),
-                    exchangeInput.getTo(), exchangeInput.getRate());
+                    exchangeInput.getTo(), exchangeInput.getRate(),
+                    exchangeInput.getTimestamp());
         }
 
         // Initialize UserService and pass CurrencyExchangeService instance
-        UserService userService = new UserService(currencyExchangeService);
+        // The run gets its own context, so its IBANs and card numbers start from the seeds
+        UserService userService = new UserService(currencyExchangeService,
+                transactionStore, new RunContext());
 
-        // Create output array
-        ArrayNode output = objectMapper.createArrayNode();
+        // Results are written to the output file as they are produced
+        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        if (options.getJsonCacheBytes() > 0) {
+            objectWriter = objectWriter.withAttribute(TransactionJsonCache.class,
+                    new TransactionJsonCache(options.getJsonCacheBytes()));
+        }
 
         // Add users from input
-        for (var userInput : inputData.getUsers()) {
+        for (var userInput : input.getUsers()) {
             userService.addUser(new User(userInput.getFirstName(),
                     userInput.getLastName(), userInput.getEmail()));
         }
 
-        // Process commands
-        for (var command : inputData.getCommands()) {
-            switch (command.getCommand()) {
-                case "printUsers" -> {
-                    // Create and add the snapshot of users to output
-                    var printNode = objectMapper.createObjectNode();
-                    printNode.put("command", "printUsers");
-                    printNode.set("output", userService.getUsersSnapshot(objectMapper));
-                    printNode.put("timestamp", command.getTimestamp());
-                    output.add(printNode);
-                }
-                case "addAccount" -> userService.addAccount(
-                        command.getEmail(),
-                        command.getCurrency(),
-                        command.getAccountType(),
-                        command.getInterestRate(),
-                        command.getTimestamp()
-                );
-                case "addFunds" -> userService.addFundsToAccount(
-                        command.getAccount(),
-                        command.getAmount()
-                );
-                case "createCard" -> userService.createCardForAccount(
-                        command.getEmail(),
-                        command.getAccount(),
-                        command.getTimestamp()
-                );
-                case "deleteAccount" -> {
-                    try {
-                        userService.deleteAccount(
-                                command.getEmail(),
-                                command.getAccount(),
-                                command.getTimestamp()
-                        );
-
-                        // Add success message to the output
-                        var successNode = objectMapper.createObjectNode();
-                        successNode.put("command", "deleteAccount");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("success", "Account deleted");
-                        outputNode.put("timestamp", command.getTimestamp());
-                        successNode.set("output", outputNode);
-                        successNode.put("timestamp", command.getTimestamp());
-                        output.add(successNode);
-                    } catch (Exception e) {
-                        // Add error message to the output
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "deleteAccount");
-
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("error",
-                                "Account couldn't be deleted - "
-                                        + "see org.poo.transactions for details");
-                        outputNode.put("timestamp", command.getTimestamp());
-
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-
-                case "createOneTimeCard" -> userService.createOneTimeCard(
-                        command.getEmail(),
-                        command.getAccount(),
-                        command.getTimestamp());
-                case "deleteCard" -> {
-                    try {
-                        Command deleteCardCommand = new DeleteCardCommand(
-                                userService,
-                                command.getEmail(),
-                                command.getCardNumber(),
-                                command.getTimestamp()
-                        );
-                        deleteCardCommand.execute();
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("status", "error");
-                        errorNode.put("command", "deleteCard");
-                        errorNode.put("message", e.getMessage());
-                        output.add(errorNode);
-                    }
-                }
-
-                case "setMinimumBalance" -> {
-                    try {
-                        userService.setMinBalance(
-                                command.getAccount(),   // IBAN of the account
-                                command.getAmount()  // Minimum balance to set
-                        );
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("status", "error");
-                        errorNode.put("command", "setMinBalance");
-                        errorNode.put("message", e.getMessage());
-                        output.add(errorNode);
-                    }
-                }
-                case "payOnline" -> {
-                    try {
-                        userService.payOnline(
-                                command.getEmail(),
-                                command.getCardNumber(),
-                                command.getAmount(),
-                                command.getCurrency(),
-                                command.getTimestamp(),
-                                command.getCommerciant()
-                        );
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "payOnline");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("timestamp", command.getTimestamp());
-                        outputNode.put("description", e.getMessage());
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-
-                case "checkCardStatus" -> {
-                    if (userService.checkCardStatus(command.getCardNumber(), command.getTimestamp())) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "checkCardStatus");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("timestamp", command.getTimestamp());
-                        outputNode.put("description", "Card not found");
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-                case "sendMoney" -> {
-                    // Tries to do the transfer without throwing exceptions
-                    Account senderAccount =
-                            userService.findAccountByAliasOrIBAN(command.getAccount());
-                    Account receiverAccount =
-                            userService.findAccountByAliasOrIBAN(command.getReceiver());
-
-                    if (senderAccount == null || receiverAccount == null) {
-                        // If one of the accounts is not found, we break;
-                        break;
-                    }
-
-                    userService.sendMoney(
-                            command.getAccount(),
-                            command.getAmount(),
-                            command.getReceiver(),
-                            command.getTimestamp(),
-                            command.getDescription(),
-                            command.getEmail()
-                    );
-                }
-
-                case "setAlias" -> {
-                    try {
-                        userService.setAlias(command.getEmail(),
-                                command.getAlias(), command.getAccount());
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("status", "error");
-                        errorNode.put("command", "setAlias");
-                        errorNode.put("message", e.getMessage());
-                        output.add(errorNode);
-                    }
-                }
-                case "printTransactions" -> {
-                    try {
-                        // Find the user by email
-                        User user = userService.findUserByEmail(command.getEmail());
-                        user.getTransactions().sort(Comparator.comparing(Transaction::getTimestamp));
-
-                        // Initialize the array of transactions
-                        ArrayNode transactionsOutput = objectMapper.createArrayNode();
-
-                        for (Transaction transaction : user.getTransactions()) {
-                            // Create a JSON object for the transaction
-                            ObjectNode transactionNode;
-
-                            transactionNode = transaction.toJson();
-
-                            transactionsOutput.add(transactionNode);
-                        }
-
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("command", "printTransactions");
-                        outputNode.set("output", transactionsOutput);
-                        outputNode.put("timestamp", command.getTimestamp());
-                        output.add(outputNode);
-
-                    } catch (Exception e) {
-                        // Generate an error message
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "printTransactions");
-                        errorNode.putObject("output").put("description", e.getMessage());
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-                case "addInterest" -> {
-                    try {
-                        userService.addInterest(command.getAccount());
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "addInterest");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("timestamp", command.getTimestamp());
-                        outputNode.put("description", e.getMessage());
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-                case "changeInterestRate" -> {
-                    try {
-                        userService.changeInterestRate(command);
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "changeInterestRate");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("timestamp", command.getTimestamp());
-                        outputNode.put("description", e.getMessage());
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-                case "splitPayment" -> userService.splitPayment(command);
-                case "report" -> {
-                    try {
-                        Report report = userService.generateReport(command);
-                        var reportNode = objectMapper.createObjectNode();
-                        reportNode.put("command", "report");
-
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("IBAN", command.getAccount());
-                        outputNode.put("balance", report.getBalance());
-                        outputNode.put("currency", report.getCurrency());
-
-                        var transactionsArray = objectMapper.createArrayNode();
-                        for (Transaction transaction : report.getTransactions()) {
-                            transactionsArray.add(transaction.toJson());
-                        }
-                        outputNode.set("transactions", transactionsArray);
-
-                        reportNode.set("output", outputNode);
-                        reportNode.put("timestamp", command.getTimestamp());
-
-                        output.add(reportNode);
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "report");
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("timestamp", command.getTimestamp());
-                        outputNode.put("description", e.getMessage());
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
-                case "spendingsReport" -> {
-                    try {
-                        SpendingsReport spendingsReport = userService.generateSpendingsReport(command);
-                        spendingsReport.setCommerciants();
-
-                        var reportNode = objectMapper.createObjectNode();
-                        reportNode.put("command", "spendingsReport");
-
-                        var outputNode = objectMapper.createObjectNode();
-                        outputNode.put("IBAN", command.getAccount());
-                        outputNode.put("balance", spendingsReport.getBalance());
-                        outputNode.put("currency", spendingsReport.getCurrency());
-
-                        var transactionsArray = objectMapper.createArrayNode();
-                        for (Transaction transaction : spendingsReport.getTransactions()) {
-                            transactionsArray.add(transaction.toJson());
-                        }
-                        outputNode.set("transactions", transactionsArray);
-
-                        var commerciantsArray = objectMapper.createArrayNode();
-
-                        spendingsReport.getCommerciants().entrySet().stream()
-                                .sorted(Map.Entry.comparingByKey())
-                                .forEach(entry -> {
-                                    var commerciantNode = objectMapper.createObjectNode();
-                                    commerciantNode.put("commerciant", entry.getKey());
-                                    commerciantNode.put("total", entry.getValue());
-                                    commerciantsArray.add(commerciantNode);
-                                });
-
-                        outputNode.set("commerciants", commerciantsArray);
-
-                        reportNode.set("output", outputNode);
-                        reportNode.put("timestamp", command.getTimestamp());
-
-                        output.add(reportNode);
-                    } catch (Exception e) {
-                        var errorNode = objectMapper.createObjectNode();
-                        errorNode.put("command", "spendingsReport");
-                        var outputNode = objectMapper.createObjectNode();
-
-                        if (e.getMessage().equalsIgnoreCase("account not found")) {
-                            outputNode.put("timestamp", command.getTimestamp());
-                            outputNode.put("description", e.getMessage());
-                        } else {
-                            outputNode.put("error", e.getMessage());
-                        }
-
-                        errorNode.set("output", outputNode);
-                        errorNode.put("timestamp", command.getTimestamp());
-                        output.add(errorNode);
-                    }
-                }
+        CommandDispatcher commands = new CommandDispatcher(userService, objectMapper);
+        try (OutputSink output = new OutputSink(objectWriter, new File(filePath2))) {
+            if (options.isPipelined()) {
+                Pipeline.run(input, output, (source, results) ->
+                        execute(source, commands, results));
+            } else {
+                execute(input, commands, output);
             }
         }
+    }
 
-        // Write output to file
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
+    /**
+     * Runs commands one at a time as they are read.
+     *
+     * @param input the commands to run
+     * @param commands the commands of the run, by type
+     * @param output the sink the results are written to
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    private static void execute(final CommandSource input, final CommandDispatcher commands,
+                                final ResultSink output) throws IOException {
+        // Process commands, one at a time as they are read
+        for (CommandInput command = input.next(); command != null; command = input.next()) {
+            commands.dispatch(command, output);
+        }
+    }
+
+    /**
+     * Creates the store for the transactions of a run: a memory-mapped journal when a
+     * journal directory is configured, the heap otherwise.
+     *
+     * @param options the options of the run
+     * @return the transaction store
+     * @throws IOException if the journal cannot be created
+     */
+    private static TransactionStore createTransactionStore(final RunOptions options)
+            throws IOException {
+        if (options.getJournalDirectory() == null) {
+            return new TransactionStore();
+        }
+        Files.createDirectories(options.getJournalDirectory());
+        Path journal = Files.createTempFile(options.getJournalDirectory(),
+                "transactions-", ".journal");
+        return TransactionStore.mapped(journal);
     }
 
     /**
@@ -0,0 +1,195 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommandSource;
+import org.poo.fileio.ResultSink;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Runs the commands of an input in three stages connected by bounded queues: a parser
+ * thread reads the commands, the calling thread executes them (it alone touches the bank
+ * state) and a serializer thread writes the results. Every stage handles the items in
+ * order, so the output is the same as running everything on one thread.
+ */
+final class Pipeline {
+    private static final int QUEUE_CAPACITY = 256;
+
+    // Markers closing the queues; they are compared by identity
+    private static final CommandInput END_OF_COMMANDS = new CommandInput();
+    private static final JsonNode END_OF_RESULTS = MissingNode.getInstance();
+
+    private final BlockingQueue<CommandInput> commands = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<JsonNode> results = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private volatile Exception parseFailure;
+    private volatile Exception writeFailure;
+
+    /**
+     * The middle stage, executing commands and producing results.
+     */
+    @FunctionalInterface
+    interface Stage {
+        /**
+         * Executes all the commands of a source.
+         *
+         * @param input the commands to execute
+         * @param output the sink of the results
+         * @throws IOException if the commands cannot be read or the results written
+         */
+        void execute(CommandSource input, ResultSink output) throws IOException;
+    }
+
+    private Pipeline() {
+    }
+
+    /**
+     * Runs the three stages and waits for all of them to finish.
+     *
+     * @param input the commands, read on the parser thread
+     * @param output the sink written on the serializer thread
+     * @param stage the execution, run on the calling thread
+     * @throws IOException if a stage fails to read or write
+     */
+    static void run(final CommandSource input, final ResultSink output, final Stage stage)
+            throws IOException {
+        Pipeline pipeline = new Pipeline();
+        Thread parser = start("poo-parser", () -> pipeline.parse(input));
+        Thread serializer = start("poo-serializer", () -> pipeline.serialize(output));
+        try {
+            stage.execute(pipeline::nextCommand, pipeline::addResult);
+        } finally {
+            // Stop reading if the execution gave up early, then let the writer drain
+            parser.interrupt();
+            pipeline.putUninterruptibly(END_OF_RESULTS);
+            joinUninterruptibly(serializer);
+            joinUninterruptibly(parser);
+        }
+        rethrow(pipeline.writeFailure);
+    }
+
+    private void parse(final CommandSource input) {
+        try {
+            for (CommandInput command = input.next(); command != null; command = input.next()) {
+                commands.put(command);
+            }
+        } catch (InterruptedException e) {
+            return; // The execution stopped, nobody reads the commands any more
+        } catch (IOException | RuntimeException e) {
+            parseFailure = e;
+        }
+        try {
+            commands.put(END_OF_COMMANDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serialize(final ResultSink output) {
+        for (JsonNode result = takeUninterruptibly(); result != END_OF_RESULTS;
+                result = takeUninterruptibly()) {
+            if (writeFailure != null) {
+                continue; // Keep draining so that the execution never blocks
+            }
+            try {
+                output.add(result);
+            } catch (IOException | RuntimeException e) {
+                writeFailure = e;
+            }
+        }
+    }
+
+    private CommandInput nextCommand() throws IOException {
+        CommandInput command;
+        try {
+            command = commands.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the commands");
+        }
+        if (command != END_OF_COMMANDS) {
+            return command;
+        }
+        commands.add(END_OF_COMMANDS); // Later calls see the end again
+        rethrow(parseFailure);
+        return null;
+    }
+
+    private void addResult(final JsonNode result) throws IOException {
+        rethrow(writeFailure);
+        try {
+            results.put(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the results");
+        }
+    }
+
+    private JsonNode takeUninterruptibly() {
+        // Only the end marker may stop the serializer
+        boolean interrupted = false;
+        JsonNode result = null;
+        while (result == null) {
+            try {
+                result = results.take();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private void putUninterruptibly(final JsonNode result) {
+        boolean interrupted = false;
+        boolean done = false;
+        while (!done) {
+            try {
+                results.put(result);
+                done = true;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread start(final String name, final Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void joinUninterruptibly(final Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(final Exception failure) throws IOException {
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+    }
+}
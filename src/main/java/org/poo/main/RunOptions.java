@@ -0,0 +1,51 @@
+package org.poo.main;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Optional settings of a run, read from system properties (e.g. -Dpoo.journal.dir=...).
+ * Every option left unset keeps the default behaviour.
+ */
+@Getter
+public final class RunOptions {
+    public static final String JOURNAL_DIR = "poo.journal.dir";
+    public static final String JSON_CACHE_BYTES = "poo.json.cache.bytes";
+    public static final String PIPELINE = "poo.pipeline";
+    public static final String WORKERS = "poo.workers";
+
+    // Directory for the memory-mapped transaction journals, null to keep them on the heap
+    private final Path journalDirectory;
+
+    // Memory budget of the cache of serialized transactions, 0 to disable it
+    private final long jsonCacheBytes;
+
+    // Whether parsing, execution and serialization run on three threads
+    private final boolean pipelined;
+
+    // Number of input files run at the same time, 1 to run them one after another
+    private final int workers;
+
+    private RunOptions(final Path journalDirectory, final long jsonCacheBytes,
+                       final boolean pipelined, final int workers) {
+        this.journalDirectory = journalDirectory;
+        this.jsonCacheBytes = jsonCacheBytes;
+        this.pipelined = pipelined;
+        this.workers = workers;
+    }
+
+    /**
+     * Reads the options from the system properties.
+     *
+     * @return the options of this run
+     */
+    public static RunOptions fromSystemProperties() {
+        String journalDir = System.getProperty(JOURNAL_DIR);
+        return new RunOptions(journalDir == null || journalDir.isBlank()
+                ? null : Path.of(journalDir),
+                Math.max(Long.getLong(JSON_CACHE_BYTES, 0L), 0L),
+                Boolean.getBoolean(PIPELINE),
+                Math.max(Integer.getInteger(WORKERS, 1), 1));
+    }
+}
@@ -1,13 +1,23 @@
 package org.poo.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 public class Card {
+    public static final byte ACTIVE = 0;
+    public static final byte FROZEN = 1;
+    public static final byte USED = 2;
+
+    // Names of the status codes, as they appear in the output
+    private static final String[] STATUS_NAMES = {"active", "frozen", "used"};
+
     private String cardNumber;
-    private String status; // "active" sau "inactive"
+    // ACTIVE, FROZEN or USED; only changed through the transitions such as freeze()
+    @Setter(AccessLevel.NONE)
+    private byte statusCode;
     private String associatedAccount;
     private boolean isOneTime;
 
@@ -20,6 +30,31 @@ public class Card {
     public Card(final String cardNumber, final String associatedAccount) {
         this.cardNumber = cardNumber;
         this.associatedAccount = associatedAccount;
-        this.status = "active";
+        this.statusCode = ACTIVE;
+    }
+
+    /**
+     * Returns the status of the card, as it appears in the output.
+     *
+     * @return "active", "frozen" or "used"
+     */
+    public final String getStatus() {
+        return STATUS_NAMES[getStatusCode()];
+    }
+
+    /**
+     * Checks if the card is frozen and can't be used for payments.
+     *
+     * @return true if the card is frozen, false otherwise
+     */
+    public final boolean isFrozen() {
+        return getStatusCode() == FROZEN;
+    }
+
+    /**
+     * Freezes the card.
+     */
+    public void freeze() {
+        statusCode = FROZEN;
     }
 }
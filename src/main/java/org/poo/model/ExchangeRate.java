@@ -6,7 +6,8 @@ import lombok.Setter;
 
 /**
  * Represents a unidirectional exchange rate:
- * from one currency (from) to another currency (to) with a specific 'rate'.
+ * from one currency (from) to another currency (to) with a specific 'rate',
+ * effective starting with a given timestamp.
  */
 @Getter
 @Setter
@@ -15,4 +16,5 @@ public class ExchangeRate {
     private String from;
     private String to;
     private double rate;
+    private int timestamp;
 }
@@ -24,12 +24,12 @@ public class OneTimeCard extends Card {
     }
 
     /**
-     * Returns the status of the card.
+     * Returns the status code of the card.
      *
-     * @return "used" if the card has been used, otherwise "active".
+     * @return USED if the card has been used, otherwise ACTIVE.
      */
     @Override
-    public String getStatus() {
-        return used ? "used" : "active";
+    public byte getStatusCode() {
+        return used ? USED : ACTIVE;
     }
 }
@@ -2,11 +2,10 @@ package org.poo.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.poo.account.MerchantSpendings;
 import org.poo.transactions.PayOnlineTransaction;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Getter
 @Setter
@@ -14,7 +13,7 @@ public class SpendingsReport {
     private final List<PayOnlineTransaction> transactions;
     private double balance;
     private String currency;
-    private Map<String, Double> commerciants = new HashMap<>();
+    private final List<MerchantSpendings.Total> commerciants; // Sorted by name
 
     /**
      * Constructs a SpendingsReport instance.
@@ -22,24 +21,14 @@ public class SpendingsReport {
      * @param transactions the list of online payment transactions included in the report
      * @param balance the balance of the account at the time of the report
      * @param currency the currency of the account
+     * @param commerciants the total spent at every merchant, sorted by merchant name
      */
     public SpendingsReport(final List<PayOnlineTransaction> transactions,
-                           final double balance, final String currency) {
+                           final double balance, final String currency,
+                           final List<MerchantSpendings.Total> commerciants) {
         this.transactions = transactions;
         this.balance = balance;
         this.currency = currency;
-    }
-
-    /**
-     * Populates the list of commerciants with the total spending for each commerciant.
-     */
-    public void setCommerciants() {
-        for (final PayOnlineTransaction transaction : transactions) {
-            double amount = transaction.getAmount();
-            if (transaction.getCommerciant() != null) {
-                commerciants.put(transaction.getCommerciant(),
-                        commerciants.getOrDefault(transaction.getCommerciant(), 0.0) + amount);
-            }
-        }
+        this.commerciants = commerciants;
     }
 }
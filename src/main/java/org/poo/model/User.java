@@ -1,13 +1,19 @@
 package org.poo.model;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.poo.account.Account;
 import org.poo.transactions.Transaction;
+import org.poo.transactions.TransactionLog;
+import org.poo.transactions.TransactionStore;
+import org.poo.transactions.TransactionType;
 
 @Getter
 @Setter
@@ -18,7 +24,26 @@ public class User {
 
     private List<Account> accounts = new ArrayList<>(); // List of accounts
     private Map<String, String> aliases = new HashMap<>(); // Map to store aliases
-    private List<Transaction> transactions = new ArrayList<>();
+
+    // Columns holding the transactions, usually shared by all the users of a bank.
+    // Both are created on first use if the user is never attached to a bank's store
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TransactionStore transactionStore;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TransactionLog transactions; // By timestamp
+
+    // Secondary indexes over the transactions, filled by addTransaction and only read
+    // through the getTransactions lookups
+    @Getter(AccessLevel.NONE)
+    private final Map<String, TransactionLog> transactionsByIban = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Map<TransactionType, TransactionLog>> transactionsByIbanAndType =
+            new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<TransactionType, TransactionLog> transactionsByType =
+            new EnumMap<>(TransactionType.class);
 
     /**
      * Constructs a User instance.
@@ -65,11 +90,120 @@ public class User {
     }
 
     /**
-     * Add a transaction to the account
+     * Returns the store holding the user's transactions.
+     *
+     * @return the store, created if the user has none yet
+     */
+    public TransactionStore getTransactionStore() {
+        if (transactionStore == null) {
+            transactionStore = new TransactionStore();
+            transactions = new TransactionLog(transactionStore);
+        }
+        return transactionStore;
+    }
+
+    /**
+     * Returns all the transactions of the user.
+     *
+     * @return the transactions, ordered by timestamp
+     */
+    public TransactionLog getTransactions() {
+        getTransactionStore();
+        return transactions;
+    }
+
+    /**
+     * Moves the user's transactions to another store, for example one shared by the
+     * whole bank. Transactions recorded so far are copied over.
+     *
+     * @param store the store that will hold the user's transactions
+     */
+    public void setTransactionStore(final TransactionStore store) {
+        if (store == transactionStore) {
+            return;
+        }
+        TransactionLog previous = transactions;
+        transactionStore = store;
+        transactions = new TransactionLog(store);
+        transactionsByIban.clear();
+        transactionsByIbanAndType.clear();
+        transactionsByType.clear();
+        if (previous == null) {
+            return;
+        }
+        for (Transaction transaction : previous) {
+            addTransaction(transaction);
+        }
+    }
+
+    /**
+     * Add a transaction to the account. The transaction is stored as a row of the
+     * transaction store, so later changes to the object are not recorded.
      *
      * @param transaction the transaction to be added
      */
     public void addTransaction(final Transaction transaction) {
-        transactions.add(transaction);
+        TransactionStore store = getTransactionStore();
+        TransactionType type = transaction.getType();
+        TransactionLog byType = type == null ? null
+                : transactionsByType.computeIfAbsent(type, t -> newLog());
+        TransactionLog byIban = null;
+        TransactionLog byIbanAndType = null;
+        if (transaction.getIban() != null) {
+            String iban = normalizeIban(transaction.getIban());
+            byIban = transactionsByIban.computeIfAbsent(iban, i -> newLog());
+            if (type != null) {
+                byIbanAndType = transactionsByIbanAndType
+                        .computeIfAbsent(iban, i -> new EnumMap<>(TransactionType.class))
+                        .computeIfAbsent(type, t -> newLog());
+            }
+        }
+
+        // Only the store can add rows to the logs, so they always agree with each other
+        store.append(transaction, transactions, byType, byIban, byIbanAndType);
+    }
+
+    /**
+     * Returns the transactions of one of the user's accounts, ignoring the case of the IBAN.
+     *
+     * @param iban the IBAN of the account
+     * @return the transactions of the account, ordered by timestamp
+     */
+    public TransactionLog getTransactions(final String iban) {
+        TransactionLog log = transactionsByIban.get(normalizeIban(iban));
+        return log == null ? newLog() : log;
+    }
+
+    /**
+     * Returns the transactions of a given type of one of the user's accounts.
+     *
+     * @param iban the IBAN of the account, case-insensitive
+     * @param type the type of the transactions
+     * @return the matching transactions, ordered by timestamp
+     */
+    public TransactionLog getTransactions(final String iban, final TransactionType type) {
+        Map<TransactionType, TransactionLog> byType =
+                transactionsByIbanAndType.get(normalizeIban(iban));
+        TransactionLog log = byType == null ? null : byType.get(type);
+        return log == null ? newLog() : log;
+    }
+
+    /**
+     * Returns the transactions of a given type, across all the user's accounts.
+     *
+     * @param type the type of the transactions
+     * @return the matching transactions, ordered by timestamp
+     */
+    public TransactionLog getTransactions(final TransactionType type) {
+        TransactionLog log = transactionsByType.get(type);
+        return log == null ? newLog() : log;
+    }
+
+    private TransactionLog newLog() {
+        return new TransactionLog(getTransactionStore());
+    }
+
+    private static String normalizeIban(final String iban) {
+        return iban.toUpperCase(Locale.ROOT);
     }
 }
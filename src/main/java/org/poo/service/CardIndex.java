@@ -0,0 +1,219 @@
+package org.poo.service;
+
+import org.poo.account.Account;
+import org.poo.model.Card;
+import org.poo.model.User;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index from card numbers to cards, their accounts and owners.
+ * Card numbers are 16 decimal digits, so they are stored as primitive longs and a
+ * lookup needs neither string comparisons nor allocations.
+ */
+public final class CardIndex {
+    public static final long NO_KEY = -1L;
+    public static final int NOT_FOUND = -1;
+
+    private static final int CARD_NUMBER_LENGTH = 16;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int RADIX = 10;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int LONG_BITS = 64;
+
+    private long[] keys;
+    private Card[] cards;
+    private Account[] accounts;
+    private User[] owners;
+    private int size;
+    private int shift;
+
+    /**
+     * Constructs an empty CardIndex.
+     */
+    public CardIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Converts a card number to the key used by the index.
+     *
+     * @param cardNumber the card number
+     * @return the card number as a long, or NO_KEY if it is not made of 16 digits
+     */
+    public static long toKey(final String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != CARD_NUMBER_LENGTH) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < CARD_NUMBER_LENGTH; i++) {
+            int digit = cardNumber.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return NO_KEY;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Indexes a card. A card number that is already indexed is left untouched.
+     *
+     * @param card the card to be indexed
+     * @param account the account the card belongs to
+     * @param owner the user owning the account
+     */
+    public void add(final Card card, final Account account, final User owner) {
+        long key = toKey(card.getCardNumber());
+        if (key == NO_KEY) {
+            return;
+        }
+        if (2 * (size + 1) > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int slot = home(key);
+        while (keys[slot] != NO_KEY) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = next(slot);
+        }
+        keys[slot] = key;
+        cards[slot] = card;
+        accounts[slot] = account;
+        owners[slot] = owner;
+        size++;
+    }
+
+    /**
+     * Finds the slot holding a card.
+     *
+     * @param cardNumber the card number
+     * @return the slot of the card, or NOT_FOUND if the card is not indexed
+     */
+    public int find(final String cardNumber) {
+        long key = toKey(cardNumber);
+        if (key == NO_KEY) {
+            return NOT_FOUND;
+        }
+        int slot = home(key);
+        while (keys[slot] != NO_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = next(slot);
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Drops a card from the index, if it is the one indexed under its number.
+     *
+     * @param card the card to be removed
+     */
+    public void remove(final Card card) {
+        int slot = find(card.getCardNumber());
+        if (slot == NOT_FOUND || cards[slot] != card) {
+            return;
+        }
+
+        // Backward shift deletion keeps every probe sequence unbroken
+        int hole = slot;
+        int current = next(slot);
+        while (keys[current] != NO_KEY) {
+            int homeSlot = home(keys[current]);
+            if (((current - homeSlot) & mask()) >= ((current - hole) & mask())) {
+                move(current, hole);
+                hole = current;
+            }
+            current = next(current);
+        }
+        clear(hole);
+        size--;
+    }
+
+    /**
+     * Returns the card stored in a slot.
+     *
+     * @param slot a slot returned by find
+     * @return the card stored in the slot
+     */
+    public Card cardAt(final int slot) {
+        return cards[slot];
+    }
+
+    /**
+     * Returns the account of the card stored in a slot.
+     *
+     * @param slot a slot returned by find
+     * @return the account the card in the slot belongs to
+     */
+    public Account accountAt(final int slot) {
+        return accounts[slot];
+    }
+
+    /**
+     * Returns the owner of the card stored in a slot.
+     *
+     * @param slot a slot returned by find
+     * @return the user owning the card in the slot
+     */
+    public User ownerAt(final int slot) {
+        return owners[slot];
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, NO_KEY);
+        cards = new Card[capacity];
+        accounts = new Account[capacity];
+        owners = new User[capacity];
+        shift = LONG_BITS - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(final int capacity) {
+        long[] oldKeys = keys;
+        Card[] oldCards = cards;
+        Account[] oldAccounts = accounts;
+        User[] oldOwners = owners;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_KEY) {
+                int slot = home(oldKeys[i]);
+                while (keys[slot] != NO_KEY) {
+                    slot = next(slot);
+                }
+                keys[slot] = oldKeys[i];
+                cards[slot] = oldCards[i];
+                accounts[slot] = oldAccounts[i];
+                owners[slot] = oldOwners[i];
+            }
+        }
+    }
+
+    private void move(final int from, final int to) {
+        keys[to] = keys[from];
+        cards[to] = cards[from];
+        accounts[to] = accounts[from];
+        owners[to] = owners[from];
+    }
+
+    private void clear(final int slot) {
+        keys[slot] = NO_KEY;
+        cards[slot] = null;
+        accounts[slot] = null;
+        owners[slot] = null;
+    }
+
+    private int home(final long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift);
+    }
+
+    private int next(final int slot) {
+        return (slot + 1) & mask();
+    }
+
+    private int mask() {
+        return keys.length - 1;
+    }
+}
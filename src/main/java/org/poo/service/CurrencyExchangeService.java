@@ -2,13 +2,31 @@ package org.poo.service;
 
 import org.poo.model.ExchangeRate;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Converts amounts between currencies. The rates are published as immutable
+ * snapshots through a single atomic reference: conversions never lock, and
+ * adding a rate swaps in a new snapshot without stalling them.
+ */
 public class CurrencyExchangeService {
-    private final Map<String, List<ExchangeRate>> adjacencyList = new HashMap<>();
+    // Id returned by idOf for a currency without rates
+    public static final int UNKNOWN_CURRENCY = -1;
+
+    // Currency code -> small int id, also its index in the rate tables
+    private final Map<String, Integer> currencyIds = new ConcurrentHashMap<>();
+
+    // Currency codes indexed by id, replaced whenever a currency is added
+    private volatile String[] currencies = new String[0];
+
+    private final AtomicReference<RateHistory> rates =
+            new AtomicReference<>(RateHistory.empty());
 
     /**
-     * Add an exchange rate (direct and reverse)
+     * Add an exchange rate (direct and reverse), effective from the beginning.
      *
      * @param from the currency to convert from
      * @param to the currency to convert to
@@ -16,15 +34,36 @@ public class CurrencyExchangeService {
      */
     public void addExchangeRate(final String from, final String to,
                                 final double rate) {
-        adjacencyList.putIfAbsent(from, new ArrayList<>());
-        adjacencyList.putIfAbsent(to, new ArrayList<>());
+        addExchangeRate(from, to, rate, 0);
+    }
+
+    /**
+     * Add an exchange rate (direct and reverse), effective starting with a timestamp.
+     * A rate given again for the same pair of currencies replaces the old one
+     * from its own timestamp onwards.
+     *
+     * @param from the currency to convert from
+     * @param to the currency to convert to
+     * @param rate the exchange rate
+     * @param timestamp the timestamp the rate becomes effective at
+     */
+    public void addExchangeRate(final String from, final String to,
+                                final double rate, final int timestamp) {
+        intern(from);
+        intern(to);
+        ExchangeRate exchangeRate = new ExchangeRate(from, to, rate, timestamp);
 
-        adjacencyList.get(from).add(new ExchangeRate(from, to, rate));
-        adjacencyList.get(to).add(new ExchangeRate(to, from, 1.0 / rate));
+        // Build the new snapshot aside and publish it, retrying if another update won
+        RateHistory current;
+        RateHistory next;
+        do {
+            current = rates.get();
+            next = current.withRate(exchangeRate, currencies, currencyIds::get);
+        } while (!rates.compareAndSet(current, next));
     }
 
     /**
-     * Convert an amount from one currency to another
+     * Convert an amount from one currency to another, using the latest rates
      *
      * @param from the currency to convert from
      * @param to the currency to convert to
@@ -32,48 +71,113 @@ public class CurrencyExchangeService {
      */
     public double convert(final String from, final String to,
                           final double amount) {
-        if (!adjacencyList.containsKey(from) || !adjacencyList.containsKey(to)) {
+        int fromId = idOf(from);
+        int toId = idOf(to);
+        if (fromId == UNKNOWN_CURRENCY || toId == UNKNOWN_CURRENCY) {
             throw new IllegalArgumentException("Unknown currency: " + from + " or " + to);
         }
-        if (from.equals(to)) {
-            return amount; // No conversion needed
-        }
+        return convert(fromId, toId, amount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Convert an amount between two interned currencies, using the rates
+     * effective at a given timestamp
+     *
+     * @param fromId the id of the currency to convert from
+     * @param toId the id of the currency to convert to
+     * @param amount the amount to convert
+     * @param timestamp the timestamp of the conversion
+     */
+    public double convert(final int fromId, final int toId, final double amount,
+                          final int timestamp) {
+        return amount * factor(rates.get().versionAt(timestamp), fromId, toId);
+    }
 
-        Set<String> visited = new HashSet<>();
-        Double result = dfsConvert(from, to, amount, visited);
-        if (result == null) {
-            throw new IllegalArgumentException("No conversion path between " + from + " and " + to);
+    /**
+     * Convert several amounts from one currency, each to its own target currency.
+     * All of them use the same snapshot of the rates.
+     *
+     * @param fromId the id of the currency to convert from
+     * @param toIds the ids of the currencies to convert to
+     * @param amounts the amounts to convert, one for every target currency
+     * @param timestamp the timestamp of the conversion
+     * @return the converted amounts
+     */
+    public double[] convertAll(final int fromId, final int[] toIds, final double[] amounts,
+                               final int timestamp) {
+        RateTable table = rates.get().versionAt(timestamp);
+        double[] converted = new double[toIds.length];
+        for (int i = 0; i < toIds.length; i++) {
+            converted[i] = amounts[i] * factor(table, fromId, toIds[i]);
         }
-        return result;
+        return converted;
     }
 
     /**
-     * DFS to find conversion ratio
+     * Returns the small int id of a known currency, without giving ids to new ones.
+     * Used for the currencies named by commands, which may be bogus.
      *
-     * @param current the current currency
-     * @param target the target currency
-     * @param currentAmount the current amount
-     * @param visited the set of visited currencies
+     * @param currency the currency code
+     * @return the id of the currency, or UNKNOWN_CURRENCY if it has none
      */
-    private Double dfsConvert(final String current, final String target,
-                              final double currentAmount, final Set<String> visited) {
-        visited.add(current);
+    public int idOf(final String currency) {
+        Integer id = currency == null ? null : currencyIds.get(currency);
+        return id == null ? UNKNOWN_CURRENCY : id;
+    }
 
-        // If we reach the target currency
-        if (current.equals(target)) {
-            return currentAmount;
+    /**
+     * Returns the small int id of a currency, giving it a new one if it has none yet.
+     * Only the currencies of accounts and exchange rates are interned.
+     * Known currencies are looked up without locking.
+     *
+     * @param currency the currency code
+     * @return the id of the currency
+     */
+    public int intern(final String currency) {
+        Integer id = currencyIds.get(currency);
+        if (id != null) {
+            return id;
         }
-
-        // Explore adjacent nodes
-        for (ExchangeRate edge : adjacencyList.getOrDefault(current, Collections.emptyList())) {
-            if (!visited.contains(edge.getTo())) {
-                double convertedAmount = currentAmount * edge.getRate();
-                Double result = dfsConvert(edge.getTo(), target, convertedAmount, visited);
-                if (result != null) {
-                    return result;
-                }
+        synchronized (currencyIds) {
+            id = currencyIds.get(currency);
+            if (id == null) {
+                id = currencies.length;
+                String[] grown = Arrays.copyOf(currencies, id + 1);
+                grown[id] = currency;
+                currencies = grown;
+                currencyIds.put(currency, id);
             }
+            return id;
         }
-        return null; // No path found
+    }
+
+    /**
+     * Returns the factor an amount is multiplied by when converted between two currencies.
+     *
+     * @param table the version of the rates to use
+     * @param fromId the id of the currency to convert from
+     * @param toId the id of the currency to convert to
+     * @return the conversion factor
+     */
+    private double factor(final RateTable table, final int fromId, final int toId) {
+        if (table == null || fromId == UNKNOWN_CURRENCY || toId == UNKNOWN_CURRENCY
+                || !table.knows(fromId) || !table.knows(toId)) {
+            throw new IllegalArgumentException("Unknown currency: " + nameOf(fromId)
+                    + " or " + nameOf(toId));
+        }
+        if (fromId == toId) {
+            return 1.0; // No conversion needed
+        }
+
+        double factor = table.factor(fromId, toId);
+        if (Double.isNaN(factor)) {
+            throw new IllegalArgumentException("No conversion path between "
+                    + currencies[fromId] + " and " + currencies[toId]);
+        }
+        return factor;
+    }
+
+    private String nameOf(final int currencyId) {
+        return currencyId == UNKNOWN_CURRENCY ? "unknown" : currencies[currencyId];
     }
 }
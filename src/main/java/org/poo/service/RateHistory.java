@@ -0,0 +1,114 @@
+package org.poo.service;
+
+import org.poo.model.ExchangeRate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable snapshot of every exchange rate added so far, together with one
+ * RateTable for every distinct timestamp. Adding a rate creates a new snapshot,
+ * so a snapshot can be shared by any number of threads without locking.
+ */
+public final class RateHistory {
+    private static final RateHistory EMPTY =
+            new RateHistory(new ExchangeRate[0], new RateTable[0], new int[0]);
+
+    // Every rate, ordered by the timestamp it becomes effective at
+    private final ExchangeRate[] rates;
+
+    // One table for every distinct timestamp, ordered by timestamp
+    private final RateTable[] versions;
+    private final int[] versionTimestamps;
+
+    private RateHistory(final ExchangeRate[] rates, final RateTable[] versions,
+                        final int[] versionTimestamps) {
+        this.rates = rates;
+        this.versions = versions;
+        this.versionTimestamps = versionTimestamps;
+    }
+
+    /**
+     * Returns the snapshot with no rates at all.
+     *
+     * @return the empty history
+     */
+    public static RateHistory empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the snapshot that also contains a new rate. Only the versions effective
+     * at or after the timestamp of the rate are rebuilt; rates normally arrive in
+     * order, so that is only the last version.
+     *
+     * @param rate the rate to be added
+     * @param currencies the codes of all the currencies known so far, indexed by id
+     * @param currencyIds maps a currency code to its id
+     * @return the new snapshot
+     */
+    public RateHistory withRate(final ExchangeRate rate, final String[] currencies,
+                                final ToIntFunction<String> currencyIds) {
+        int timestamp = rate.getTimestamp();
+
+        // Keep the rates ordered, rates with the same timestamp in arrival order
+        int position = rates.length;
+        while (position > 0 && rates[position - 1].getTimestamp() > timestamp) {
+            position--;
+        }
+        ExchangeRate[] newRates = new ExchangeRate[rates.length + 1];
+        System.arraycopy(rates, 0, newRates, 0, position);
+        newRates[position] = rate;
+        System.arraycopy(rates, position, newRates, position + 1, rates.length - position);
+
+        int kept = 0;
+        while (kept < versions.length && versionTimestamps[kept] < timestamp) {
+            kept++;
+        }
+        List<RateTable> rebuilt = new ArrayList<>(Arrays.asList(versions).subList(0, kept));
+        RateTable table = kept == 0 ? RateTable.empty(timestamp) : versions[kept - 1];
+
+        int start = 0;
+        while (start < newRates.length && newRates[start].getTimestamp() < timestamp) {
+            start++;
+        }
+        while (start < newRates.length) {
+            int groupTimestamp = newRates[start].getTimestamp();
+            int end = start;
+            while (end < newRates.length && newRates[end].getTimestamp() == groupTimestamp) {
+                end++;
+            }
+
+            int[] fromIds = new int[end - start];
+            int[] toIds = new int[end - start];
+            double[] values = new double[end - start];
+            for (int i = start; i < end; i++) {
+                fromIds[i - start] = currencyIds.applyAsInt(newRates[i].getFrom());
+                toIds[i - start] = currencyIds.applyAsInt(newRates[i].getTo());
+                values[i - start] = newRates[i].getRate();
+            }
+            table = table.withRates(groupTimestamp, currencies, fromIds, toIds, values);
+            rebuilt.add(table);
+            start = end;
+        }
+
+        return new RateHistory(newRates, rebuilt.toArray(new RateTable[0]),
+                rebuilt.stream().mapToInt(RateTable::getTimestamp).toArray());
+    }
+
+    /**
+     * Finds the version of the rates effective at a timestamp, by binary search.
+     *
+     * @param timestamp the timestamp of the conversion
+     * @return the latest version not newer than the timestamp, or null if there is none
+     */
+    public RateTable versionAt(final int timestamp) {
+        int index = Arrays.binarySearch(versionTimestamps, timestamp);
+        if (index < 0) {
+            index = -index - 2; // The version right before the insertion point
+        }
+        return index < 0 ? null : versions[index];
+    }
+}
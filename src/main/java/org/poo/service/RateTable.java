@@ -0,0 +1,149 @@
+package org.poo.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable version of the exchange rates, effective starting with a timestamp,
+ * together with the conversion factor precomputed for every pair of currencies.
+ */
+public final class RateTable {
+    private final int timestamp;
+
+    // Direct rates between currencies, NaN where there is no direct rate
+    private final double[][] directRates;
+
+    // Whether a currency appears in at least one rate
+    private final boolean[] hasRates;
+
+    // Conversion factor for every pair of currencies, NaN where there is no path
+    private final double[][] factors;
+
+    private RateTable(final int timestamp, final double[][] directRates,
+                      final String[] currencies) {
+        this.timestamp = timestamp;
+        this.directRates = directRates;
+        this.hasRates = new boolean[directRates.length];
+        for (int i = 0; i < directRates.length; i++) {
+            for (double rate : directRates[i]) {
+                hasRates[i] |= !Double.isNaN(rate);
+            }
+        }
+        this.factors = buildFactors(directRates, currencies);
+    }
+
+    /**
+     * Creates a table with no rates at all.
+     *
+     * @param timestamp the timestamp the table is effective from
+     * @return the empty table
+     */
+    public static RateTable empty(final int timestamp) {
+        return new RateTable(timestamp, new double[0][0], new String[0]);
+    }
+
+    /**
+     * Creates a new version of the table, with some rates added or replaced.
+     *
+     * @param newTimestamp the timestamp the new version is effective from
+     * @param currencies the codes of all the currencies known so far, indexed by id
+     * @param fromIds the ids of the currencies converted from
+     * @param toIds the ids of the currencies converted to
+     * @param rates the new rates, applied in order
+     * @return the new version of the table
+     */
+    public RateTable withRates(final int newTimestamp, final String[] currencies,
+                               final int[] fromIds, final int[] toIds, final double[] rates) {
+        double[][] grown = new double[currencies.length][currencies.length];
+        for (int i = 0; i < currencies.length; i++) {
+            Arrays.fill(grown[i], Double.NaN);
+            if (i < directRates.length) {
+                System.arraycopy(directRates[i], 0, grown[i], 0, directRates.length);
+            }
+        }
+        for (int i = 0; i < rates.length; i++) {
+            grown[fromIds[i]][toIds[i]] = rates[i];
+            grown[toIds[i]][fromIds[i]] = 1.0 / rates[i];
+        }
+        return new RateTable(newTimestamp, grown, currencies);
+    }
+
+    /**
+     * Returns the timestamp this version is effective from.
+     *
+     * @return the timestamp of the version
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Checks if a currency appears in at least one rate of this version.
+     *
+     * @param currencyId the id of the currency
+     * @return true if the currency can be converted, false otherwise
+     */
+    public boolean knows(final int currencyId) {
+        return currencyId < hasRates.length && hasRates[currencyId];
+    }
+
+    /**
+     * Returns the factor an amount is multiplied by when converted between two currencies.
+     *
+     * @param fromId the id of the currency to convert from
+     * @param toId the id of the currency to convert to
+     * @return the conversion factor, or NaN if there is no conversion path
+     */
+    public double factor(final int fromId, final int toId) {
+        return factors[fromId][toId];
+    }
+
+    /**
+     * Computes the conversion factor between every pair of currencies.
+     * Each factor follows the path with the fewest exchanges (BFS); between paths
+     * of the same length, neighbours are explored in alphabetical order, so the
+     * result does not depend on the order in which the rates were added.
+     *
+     * @param rates the direct rates
+     * @param currencies the codes of the currencies, indexed by id
+     * @return the matrix of conversion factors
+     */
+    private static double[][] buildFactors(final double[][] rates, final String[] currencies) {
+        int count = rates.length;
+
+        // Neighbours of every currency, in alphabetical order
+        int[][] neighbours = new int[count][];
+        for (int i = 0; i < count; i++) {
+            final double[] row = rates[i];
+            neighbours[i] = IntStream.range(0, count)
+                    .filter(j -> !Double.isNaN(row[j]))
+                    .boxed()
+                    .sorted(Comparator.comparing(j -> currencies[j]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        double[][] result = new double[count][count];
+        int[] queue = new int[count];
+        for (int source = 0; source < count; source++) {
+            double[] factor = result[source];
+            Arrays.fill(factor, Double.NaN);
+            factor[source] = 1.0;
+
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int current = queue[head++];
+                for (int next : neighbours[current]) {
+                    if (Double.isNaN(factor[next])) {
+                        factor[next] = factor[current] * rates[current][next];
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
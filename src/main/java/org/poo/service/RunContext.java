@@ -0,0 +1,32 @@
+package org.poo.service;
+
+import org.poo.utils.DigitGenerator;
+import org.poo.utils.Utils;
+
+/**
+ * The state owned by a single run of the bank. Every run gets a fresh context, so runs
+ * in the same JVM, even at the same time, generate the same identifiers as a run alone.
+ * A context is not thread-safe; it belongs to the thread executing the run's commands.
+ */
+public final class RunContext {
+    private final DigitGenerator ibanDigits = new DigitGenerator(Utils.IBAN_SEED);
+    private final DigitGenerator cardDigits = new DigitGenerator(Utils.CARD_SEED);
+
+    /**
+     * Generates the IBAN of the next account of the run.
+     *
+     * @return the IBAN as String
+     */
+    public String nextIban() {
+        return Utils.generateIBAN(ibanDigits);
+    }
+
+    /**
+     * Generates the number of the next card of the run.
+     *
+     * @return the card number as String
+     */
+    public String nextCardNumber() {
+        return Utils.generateCardNumber(cardDigits);
+    }
+}
@@ -0,0 +1,259 @@
+package org.poo.service;
+
+import org.poo.account.Account;
+import org.poo.model.Card;
+import org.poo.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps every user of the bank together with the lookup indexes built on top of them.
+ */
+public final class UserRegistry {
+    // Users in the order they were registered
+    private final List<User> users = new ArrayList<>();
+    private final List<User> usersView = Collections.unmodifiableList(users);
+
+    // Normalized email -> first user registered with that email
+    private final Map<String, User> usersByEmail = new HashMap<>();
+
+    // Registration order of each user, used to break ties between aliases
+    private final Map<User, Integer> ordinals = new IdentityHashMap<>();
+
+    // Normalized IBAN -> account and the user owning it
+    private final Map<String, AccountEntry> accountsByIban = new HashMap<>();
+
+    // Alias -> account it resolves to, shared by all the users
+    private final Map<String, AccountEntry> accountsByAlias = new HashMap<>();
+
+    // Card number -> card, its account and owner
+    private final CardIndex cards = new CardIndex();
+
+    /**
+     * Registers a new user and indexes it by email.
+     *
+     * @param user the user to be added
+     */
+    public void add(final User user) {
+        ordinals.putIfAbsent(user, users.size());
+        users.add(user);
+        if (user.getEmail() != null) {
+            // The first user wins, just like a linear scan would
+            usersByEmail.putIfAbsent(normalizeEmail(user.getEmail()), user);
+        }
+    }
+
+    /**
+     * Finds a user by their email, ignoring case.
+     *
+     * @param email the email of the user
+     * @return the user found or null if none exists
+     */
+    public User findByEmail(final String email) {
+        if (email == null) {
+            return null;
+        }
+        return usersByEmail.get(normalizeEmail(email));
+    }
+
+    /**
+     * Indexes a freshly opened account under its IBAN.
+     *
+     * @param owner the user owning the account
+     * @param account the account to be indexed
+     */
+    public void addAccount(final User owner, final Account account) {
+        accountsByIban.putIfAbsent(normalizeIban(account.getIban()),
+                new AccountEntry(account, owner));
+    }
+
+    /**
+     * Drops a deleted account from the IBAN index.
+     *
+     * @param account the account to be removed
+     */
+    public void removeAccount(final Account account) {
+        String key = normalizeIban(account.getIban());
+        AccountEntry entry = accountsByIban.get(key);
+        if (entry == null || entry.account() != account) {
+            return;
+        }
+        accountsByIban.remove(key);
+        for (Card card : account.getCards()) {
+            cards.remove(card);
+        }
+
+        // Aliases of a deleted account no longer resolve to anything
+        Iterator<Map.Entry<String, String>> aliases =
+                entry.owner().getAliases().entrySet().iterator();
+        while (aliases.hasNext()) {
+            Map.Entry<String, String> alias = aliases.next();
+            if (!alias.getValue().equals(account.getIban())) {
+                continue;
+            }
+            aliases.remove();
+            AccountEntry aliased = accountsByAlias.get(alias.getKey());
+            if (aliased != null && aliased.account() == account) {
+                reindexAlias(alias.getKey());
+            }
+        }
+    }
+
+    /**
+     * Points an alias of a user to one of its accounts.
+     * When several users share an alias, the one registered first is the one it
+     * resolves to, just like when the users were scanned in order.
+     *
+     * @param owner the user setting the alias
+     * @param alias the alias name
+     * @param account the account the alias stands for
+     */
+    public void putAlias(final User owner, final String alias, final Account account) {
+        owner.addAlias(alias, account.getIban());
+        AccountEntry current = accountsByAlias.get(alias);
+        if (current == null || current.owner() == owner
+                || ordinals.get(owner) < ordinals.get(current.owner())) {
+            accountsByAlias.put(alias, new AccountEntry(account, owner));
+        }
+    }
+
+    /**
+     * Resolves an identifier that can be either an alias or an IBAN.
+     * Aliases take precedence over IBANs.
+     *
+     * @param aliasOrIban the alias or IBAN of the account
+     * @return the account and its owner, or null if none exists
+     */
+    public AccountEntry resolve(final String aliasOrIban) {
+        if (aliasOrIban == null) {
+            return null;
+        }
+        AccountEntry entry = accountsByAlias.get(aliasOrIban);
+        if (entry != null) {
+            return entry;
+        }
+        entry = accountsByIban.get(normalizeIban(aliasOrIban));
+        if (entry == null || !entry.account().getIban().equals(aliasOrIban)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Finds an account by its exact IBAN.
+     *
+     * @param iban the IBAN of the account
+     * @return the account found or null if none exists
+     */
+    public Account findAccount(final String iban) {
+        AccountEntry entry = findEntry(iban);
+        if (entry == null || !entry.account().getIban().equals(iban)) {
+            return null;
+        }
+        return entry.account();
+    }
+
+    /**
+     * Finds the owner of an account by its IBAN, ignoring case.
+     *
+     * @param iban the IBAN of the account
+     * @return the user found or null if none exists
+     */
+    public User findOwner(final String iban) {
+        AccountEntry entry = findEntry(iban);
+        return entry == null ? null : entry.owner();
+    }
+
+    /**
+     * Returns the index of all the cards of the bank.
+     *
+     * @return the card index
+     */
+    public CardIndex getCards() {
+        return cards;
+    }
+
+    /**
+     * Returns all the users in registration order.
+     *
+     * @return an unmodifiable view of the users
+     */
+    public List<User> getUsers() {
+        return usersView;
+    }
+
+    /**
+     * Recomputes which user an alias resolves to, after its previous target was dropped.
+     *
+     * @param alias the alias name
+     */
+    private void reindexAlias(final String alias) {
+        accountsByAlias.remove(alias);
+        for (User user : users) {
+            String iban = user.getIBANForAlias(alias);
+            AccountEntry entry = findEntry(iban);
+            if (entry != null && entry.account().getIban().equals(iban)) {
+                accountsByAlias.put(alias, entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Looks up the index entry of an IBAN, ignoring case.
+     *
+     * @param iban the IBAN of the account
+     * @return the entry found or null if none exists
+     */
+    private AccountEntry findEntry(final String iban) {
+        if (iban == null) {
+            return null;
+        }
+        return accountsByIban.get(normalizeIban(iban));
+    }
+
+    /**
+     * Brings an IBAN to the form used as key in the account index.
+     *
+     * @param iban the IBAN to normalize
+     * @return the normalized IBAN
+     */
+    private static String normalizeIban(final String iban) {
+        return iban.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Brings an email to the form used as key in the email index. Every code point is
+     * folded the way equalsIgnoreCase compares it (upper case, then lower case), so two
+     * emails share a key exactly when they are equal ignoring case.
+     *
+     * @param email the email to normalize
+     * @return the normalized email
+     */
+    private static String normalizeEmail(final String email) {
+        StringBuilder folded = new StringBuilder(email.length());
+        int i = 0;
+        while (i < email.length()) {
+            int codePoint = email.codePointAt(i);
+            folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+
+    /**
+     * An account together with the user owning it.
+     *
+     * @param account the indexed account
+     * @param owner the user owning the account
+     */
+    public record AccountEntry(Account account, User owner) {
+    }
+}
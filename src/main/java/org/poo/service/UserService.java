@@ -8,7 +8,6 @@ import org.poo.account.SavingsAccount;
 import org.poo.fileio.CommandInput;
 import org.poo.model.*;
 import org.poo.transactions.*;
-import org.poo.utils.Utils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,13 +18,33 @@ import java.util.List;
 public class UserService {
     private static final int DIVISOR = 100;
 
-    // List of all users
-    private final List<User> users = new ArrayList<>();
+    // All users of the bank, indexed for fast lookups
+    private final UserRegistry users = new UserRegistry();
+
+    // Transactions of all the users, stored column by column
+    private final TransactionStore transactionStore;
 
     private final CurrencyExchangeService currencyExchangeService;
 
+    // Generators of the IBANs and card numbers of this run
+    private final RunContext context;
+
     public UserService(final CurrencyExchangeService currencyExchangeService) {
+        this(currencyExchangeService, new TransactionStore(), new RunContext());
+    }
+
+    /**
+     * Constructs a UserService keeping the transactions in a given store.
+     *
+     * @param currencyExchangeService the service used for currency conversions
+     * @param transactionStore the store holding the transactions of all the users
+     * @param context the state of the run, used to generate IBANs and card numbers
+     */
+    public UserService(final CurrencyExchangeService currencyExchangeService,
+                       final TransactionStore transactionStore, final RunContext context) {
         this.currencyExchangeService = currencyExchangeService;
+        this.transactionStore = transactionStore;
+        this.context = context;
     }
 
     /**
@@ -34,6 +53,7 @@ public class UserService {
      * @param user the user to be added
      */
     public void addUser(final User user) {
+        user.setTransactionStore(transactionStore);
         users.add(user);
     }
 
@@ -45,12 +65,7 @@ public class UserService {
      * @return the user found or null if none exists
      */
     public User findUserByEmail(final String email) {
-        for (User user : users) {
-            if (user.getEmail().equalsIgnoreCase(email)) {
-                return user;
-            }
-        }
-        return null;
+        return users.findByEmail(email);
     }
 
     /**
@@ -60,14 +75,7 @@ public class UserService {
      * @return the user found or null if none exists
      */
     public User findUserByIban(final String iban) {
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIban().equalsIgnoreCase(iban)) {
-                    return user;
-                }
-            }
-        }
-        return null;
+        return users.findOwner(iban);
     }
 
     /**
@@ -77,14 +85,22 @@ public class UserService {
      * @return the account found or null if none exists
      */
     public Account findAccountByIBAN(final String iban) {
-        for (User user : users) { // Assuming `users` is a list of all users
-            for (Account account : user.getAccounts()) {
-                if (account.getIban().equals(iban)) {
-                    return account; // Return the account if IBAN matches
-                }
-            }
+        return users.findAccount(iban);
+    }
+
+    /**
+     * Finds an account by its IBAN, only if it belongs to the given user.
+     *
+     * @param user the user that should own the account
+     * @param iban the IBAN of the account
+     * @return the account found or null if the user has no such account
+     */
+    private Account findOwnedAccount(final User user, final String iban) {
+        Account account = findAccountByIBAN(iban);
+        if (account == null || findUserByIban(iban) != user) {
+            return null;
         }
-        return null; // Return null if no account with the specified IBAN is found
+        return account;
     }
 
 
@@ -95,19 +111,8 @@ public class UserService {
      * @return the account found or null if none exists
      */
     public Account findAccountByAliasOrIBAN(final String identifier) {
-        String resolvedIBAN = identifier; // Assume it's an IBAN by default
-
-        // Check if it's an alias
-        for (User user : users) { // Assume `users` is a List<User> in UserService
-            String ibanFromAlias = user.getIBANForAlias(identifier);
-            if (ibanFromAlias != null) {
-                resolvedIBAN = ibanFromAlias;
-                break;
-            }
-        }
-
-        // Find account by IBAN
-        return findAccountByIBAN(resolvedIBAN);
+        UserRegistry.AccountEntry entry = users.resolve(identifier);
+        return entry == null ? null : entry.account();
     }
 
     /**
@@ -132,7 +137,7 @@ public class UserService {
         }
 
         // Generate a unique IBAN
-        String iban = Utils.generateIBAN();
+        String iban = context.nextIban();
         Account newAccount;
 
         // Create the account based on type
@@ -148,6 +153,8 @@ public class UserService {
             throw new IllegalArgumentException("Invalid account type: " + accountType);
         }
 
+        newAccount.setCurrencyId(currencyExchangeService.intern(currency));
+
         // Ensure account list is initialized
         if (user.getAccounts() == null) {
             user.setAccounts(new ArrayList<>());
@@ -155,6 +162,7 @@ public class UserService {
 
         // Add the account to the user
         user.getAccounts().add(newAccount);
+        users.addAccount(user, newAccount);
 
         // Add a transaction for account creation
         Transaction creationTransaction = new Transaction("New account created",
@@ -177,13 +185,10 @@ public class UserService {
         }
 
         // Find the account by IBAN
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIban().equals(iban)) {
-                    account.setBalance(account.getBalance() + amount);
-                    return;
-                }
-            }
+        Account account = findAccountByIBAN(iban);
+        if (account != null) {
+            account.setBalance(account.getBalance() + amount);
+            return;
         }
 
         throw new IllegalArgumentException("IBAN-ul specificat nu există: " + iban);
@@ -204,14 +209,15 @@ public class UserService {
             return;
         }
 
-        Account account = user.getAccounts().stream()
-                .filter(acc -> acc.getIban().equals(iban))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+        Account account = findOwnedAccount(user, iban);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + iban);
+        }
 
-        String cardNumber = Utils.generateCardNumber();
+        String cardNumber = context.nextCardNumber();
         Card card = new Card(cardNumber, iban);
         account.addCard(card);
+        users.getCards().add(card, account, user);
         Transaction newTransaction = new CreateCardTransaction(cardNumber, email, iban,
                 timestamp, "New card created", account.getIban());
         user.addTransaction(newTransaction);
@@ -232,14 +238,15 @@ public class UserService {
             throw new IllegalArgumentException("User not found: " + email);
         }
 
-        Account account = user.getAccounts().stream()
-                .filter(acc -> acc.getIban().equals(iban))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+        Account account = findOwnedAccount(user, iban);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + iban);
+        }
 
-        String cardNumber = Utils.generateCardNumber();
+        String cardNumber = context.nextCardNumber();
         OneTimeCard oneTimeCard = new OneTimeCard(cardNumber, iban);
         account.addCard(oneTimeCard);
+        users.getCards().add(oneTimeCard, account, user);
         Transaction newTransaction = new CreateCardTransaction(cardNumber, email, iban,
                 timestamp, "New card created", account.getIban());
         user.addTransaction(newTransaction);
@@ -253,7 +260,7 @@ public class UserService {
      */
     public ArrayNode getUsersSnapshot(final ObjectMapper objectMapper) {
         ArrayNode usersArray = objectMapper.createArrayNode();
-        for (User user : users) {
+        for (User user : users.getUsers()) {
             ObjectNode userNode = objectMapper.createObjectNode();
             userNode.put("firstName", user.getFirstName());
             userNode.put("lastName", user.getLastName());
@@ -302,10 +309,10 @@ public class UserService {
         }
 
         // Find the account by IBAN
-        Account account = user.getAccounts().stream()
-                .filter(acc -> acc.getIban().equals(iban))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+        Account account = findOwnedAccount(user, iban);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + iban);
+        }
 
         // Check if the account has a balance different from zero
         if (account.getBalance() != 0.0) {
@@ -315,10 +322,9 @@ public class UserService {
             throw new IllegalArgumentException("Account cannot be deleted: balance is not zero.");
         }
 
-        // Delete all cards associated with the account
+        // Delete the account and all the cards associated with it
+        users.removeAccount(account);
         account.getCards().clear();
-
-        // Delete the account
         user.getAccounts().remove(account);
 
     }
@@ -342,18 +348,18 @@ public class UserService {
             throw new IllegalArgumentException("User not found: " + email);
         }
 
-        for (Account account : user.getAccounts()) {
-            Card cardToDelete = account.getCards().stream()
-                    .filter(card -> card.getCardNumber().equals(cardNumber))
-                    .findFirst()
-                    .orElse(null);
-
-            if (cardToDelete != null) {
-                account.getCards().remove(cardToDelete);
-                user.addTransaction(new DeleteCardTransaction(email, cardNumber,
-                        timestamp, account.getIban()));
-            }
+        CardIndex cards = users.getCards();
+        int slot = cards.find(cardNumber);
+        if (slot == CardIndex.NOT_FOUND || cards.ownerAt(slot) != user) {
+            return;
         }
+
+        Card cardToDelete = cards.cardAt(slot);
+        Account account = cards.accountAt(slot);
+        cards.remove(cardToDelete);
+        account.getCards().remove(cardToDelete);
+        user.addTransaction(new DeleteCardTransaction(email, cardNumber,
+                timestamp, account.getIban()));
     }
 
     /**
@@ -395,54 +401,59 @@ public class UserService {
                 throw new IllegalArgumentException("User not found: " + email);
             }
 
-            for (Account account : user.getAccounts()) {
-                for (Card card : account.getCards()) {
-                    if (card.getCardNumber().equals(cardNumber)) {
-                        if (card.getStatus().equalsIgnoreCase("frozen")) {
-                            Transaction newTransaction =
-                                    new Transaction("The card is frozen", timestamp,
-                                            account.getIban());
-                            user.addTransaction(newTransaction);
-                            return;
-                        }
-
-                        // Value conversion
-                        double convertedAmount = currency.equals(account.getCurrency())
-                                ? amount
-                                : currencyExchangeService.convert(currency,
-                                account.getCurrency(), amount);
-
-                        if (account.getBalance() < convertedAmount) {
-                            user.addTransaction(new Transaction("Insufficient funds",
-                                    timestamp, account.getIban()));
-                            return;
-                        }
-
-                        if (account.getBalance() - convertedAmount < account.getMinBalance()) {
-                            card.setStatus("frozen");
-                            Transaction newTransaction =
-                                    new Transaction("The card is frozen", timestamp,
-                                            account.getIban());
-                            user.addTransaction(newTransaction);
-                            return;
-                        }
-
-                        // Update balance
-                        account.setBalance(account.getBalance() - convertedAmount);
-
-                        // Add transaction
-                        user.addTransaction(new PayOnlineTransaction(convertedAmount,
-                                commerciant, "Card payment", timestamp, account.getIban()));
-
-                        if (card.isOneTime()) {
-                            regenOneTimeCard(account, card, email, timestamp);
-                        }
-
-                        return;
-                    }
-                }
+            CardIndex cards = users.getCards();
+            int slot = cards.find(cardNumber);
+            if (slot == CardIndex.NOT_FOUND || cards.ownerAt(slot) != user) {
+                throw new IllegalArgumentException("Card not found");
+            }
+            Card card = cards.cardAt(slot);
+            Account account = cards.accountAt(slot);
+
+            if (card.isFrozen()) {
+                Transaction newTransaction =
+                        new Transaction("The card is frozen", timestamp,
+                                account.getIban());
+                user.addTransaction(newTransaction);
+                return;
+            }
+
+            // Value conversion, by currency ids; the code is only looked up, never interned
+            int currencyId = currencyExchangeService.idOf(currency);
+            if (currencyId == CurrencyExchangeService.UNKNOWN_CURRENCY) {
+                throw new IllegalArgumentException("Unknown currency: " + currency + " or "
+                        + account.getCurrency());
+            }
+            double convertedAmount = currencyId == account.getCurrencyId()
+                    ? amount
+                    : currencyExchangeService.convert(currencyId,
+                    account.getCurrencyId(), amount, timestamp);
+
+            if (account.getBalance() < convertedAmount) {
+                user.addTransaction(new Transaction("Insufficient funds",
+                        timestamp, account.getIban()));
+                return;
+            }
+
+            if (account.getBalance() - convertedAmount < account.getMinBalance()) {
+                card.freeze();
+                Transaction newTransaction =
+                        new Transaction("The card is frozen", timestamp,
+                                account.getIban());
+                user.addTransaction(newTransaction);
+                return;
+            }
+
+            // Update balance
+            account.setBalance(account.getBalance() - convertedAmount);
+
+            // Add transaction
+            user.addTransaction(new PayOnlineTransaction(convertedAmount,
+                    commerciant, "Card payment", timestamp, account.getIban()));
+            account.getSpendings().record(commerciant, timestamp, convertedAmount);
+
+            if (card.isOneTime()) {
+                regenOneTimeCard(account, card, email, timestamp);
             }
-            throw new IllegalArgumentException("Card not found");
         } catch (Exception e) {
             throw new IllegalArgumentException(e.getMessage());
         }
@@ -456,38 +467,35 @@ public class UserService {
      * @return true if the card is in good standing, false otherwise
      */
     public boolean checkCardStatus(final String cardNumber, final int timestamp) {
-        // Search through all users and their accounts to find the card
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                for (Card card : account.getCards()) {
-                    if (card.getCardNumber().equals(cardNumber)) {
-                        double balance = account.getBalance();
-                        double minBalance = account.getMinBalance();
-
-                        // Warning case
-                        if ((balance - minBalance) <= 30) {
-                            Transaction newTransaction = new Transaction("You have reached the "
-                                    + "minimum amount of funds, the card will be frozen",
-                                    timestamp, account.getIban());
-                            user.addTransaction(newTransaction);
-                            return false;
-                        }
-
-                        // Frozen case
-                        if (balance < minBalance) {
-                            card.setStatus("frozen");
-                            Transaction newTransaction = new Transaction("Card is frozen",
-                                    timestamp, account.getIban());
-                            user.addTransaction(newTransaction);
-                            return false;
-                        }
-                        return false;
-                    }
-                }
-
-            }
-        }
-        return true;
+        CardIndex cards = users.getCards();
+        int slot = cards.find(cardNumber);
+        if (slot == CardIndex.NOT_FOUND) {
+            return true;
+        }
+
+        User user = cards.ownerAt(slot);
+        Account account = cards.accountAt(slot);
+        double balance = account.getBalance();
+        double minBalance = account.getMinBalance();
+
+        // Warning case
+        if ((balance - minBalance) <= 30) {
+            Transaction newTransaction = new Transaction("You have reached the "
+                    + "minimum amount of funds, the card will be frozen",
+                    timestamp, account.getIban());
+            user.addTransaction(newTransaction);
+            return false;
+        }
+
+        // Frozen case
+        if (balance < minBalance) {
+            cards.cardAt(slot).freeze();
+            Transaction newTransaction = new Transaction("Card is frozen",
+                    timestamp, account.getIban());
+            user.addTransaction(newTransaction);
+            return false;
+        }
+        return false;
     }
 
     /**
@@ -515,17 +523,13 @@ public class UserService {
             return;
         }
 
-        // Resolve the receiver's IBAN from the alias
-        String resolvedReceiverIBAN = resolveAliasGlobally(receiverIBANOrAlias);
-        if (resolvedReceiverIBAN == null || resolvedReceiverIBAN.isEmpty()) {
-            return;
-        }
-
-        Account receiverAccount = findAccountByIBAN(resolvedReceiverIBAN);
-        User receiverUser = findUserByIban(resolvedReceiverIBAN);
-        if (receiverAccount == null) {
+        // Resolve the receiver's account from the alias or IBAN
+        UserRegistry.AccountEntry receiver = users.resolve(receiverIBANOrAlias);
+        if (receiver == null) {
             return;
         }
+        Account receiverAccount = receiver.account();
+        User receiverUser = receiver.owner();
 
         // Verify if the sender has enough funds
         if (senderAccount.getBalance() < amount) {
@@ -537,9 +541,10 @@ public class UserService {
 
         // Convert the amount to the receiver's currency
         double convertedAmount = currencyExchangeService.convert(
-                senderAccount.getCurrency(),
-                receiverAccount.getCurrency(),
-                amount
+                senderAccount.getCurrencyId(),
+                receiverAccount.getCurrencyId(),
+                amount,
+                timestamp
         );
 
         // Do the transaction
@@ -550,28 +555,10 @@ public class UserService {
                 amount, senderAccount.getCurrency(), "sent", description, timestamp, senderIBAN));
         receiverUser.addTransaction(new SendMoneyTransaction(senderIBAN, receiverAccount.getIban(),
                 convertedAmount, receiverAccount.getCurrency(), "received", description,
-                timestamp, resolvedReceiverIBAN));
+                timestamp, receiverAccount.getIban()));
     }
 
 
-    /**
-     * Resolves an alias to its corresponding IBAN.
-     *
-     * @param aliasOrIBAN a string that can either be an alias or a valid IBAN
-     * @return the IBAN associated with the alias if found, otherwise returns the original input
-     */
-    private String resolveAliasGlobally(final String aliasOrIBAN) {
-        // Check if the input is an alias
-        for (User user : users) {
-            String iban = user.getIBANForAlias(aliasOrIBAN);
-            if (iban != null) {
-                return iban;
-            }
-        }
-        // If the input is not an alias, return the original input
-        return aliasOrIBAN;
-    }
-
     /**
      * Sets an alias for an account identified by its IBAN.
      *
@@ -591,10 +578,7 @@ public class UserService {
         }
 
         // Verify if the account exists
-        Account account = user.getAccounts().stream()
-                .filter(acc -> acc.getIban().equals(accountIBAN))
-                .findFirst()
-                .orElse(null);
+        Account account = findOwnedAccount(user, accountIBAN);
 
         if (account == null) {
             throw new IllegalArgumentException("Contul cu IBAN-ul"
@@ -602,7 +586,7 @@ public class UserService {
         }
 
         // Add the alias to the user
-        user.getAliases().put(alias, accountIBAN);
+        users.putAlias(user, alias, account);
     }
 
     /**
@@ -636,57 +620,54 @@ public class UserService {
      * @param command the command input containing details of the split payment
      */
     public void splitPayment(final CommandInput command) {
-        double convertedSplitSum;
         double splitSum = command.getAmount() / command.getAccounts().size();
         String description = "Split payment of " + String.format("%.2f", command.getAmount())
                 + " " + command.getCurrency();
-        SplitPaymentTransaction newTransaction =
-                new SplitPaymentTransaction(command.getTimestamp(), description,
-                        command.getCurrency(), splitSum, command.getAccounts());
+        SplitPayment payment = new SplitPayment(description, command.getCurrency(), splitSum,
+                command.getAccounts());
 
-        Account account;
         List<Account> involvedAccounts = new ArrayList<>();
-
-
-        boolean hasMoney = true;
-        String poorIban = "";
+        int[] currencyIds = new int[command.getAccounts().size()];
+        double[] splitSums = new double[currencyIds.length];
 
         for (String iban : command.getAccounts()) {
-            account = findAccountByIBAN(iban);
+            Account account = findAccountByIBAN(iban);
+            currencyIds[involvedAccounts.size()] = account.getCurrencyId();
+            splitSums[involvedAccounts.size()] = splitSum;
             involvedAccounts.add(account);
+        }
 
-            convertedSplitSum = currencyExchangeService.convert(command.getCurrency(),
-                    account.getCurrency(), splitSum);
+        // Convert every share to the currency of its account in one go
+        double[] convertedSplitSums = currencyExchangeService.convertAll(
+                currencyExchangeService.idOf(command.getCurrency()), currencyIds, splitSums,
+                command.getTimestamp());
+
+        boolean hasMoney = true;
+        String poorIban = "";
 
-            if (account.getBalance() < convertedSplitSum) {
+        for (int i = 0; i < involvedAccounts.size(); i++) {
+            Account account = involvedAccounts.get(i);
+            if (account.getBalance() < convertedSplitSums[i]) {
                 hasMoney = false;
                 poorIban = account.getIban();
             }
         }
 
+        String error = null;
         if (hasMoney) {
-            for (Account accountt : involvedAccounts) {
-                convertedSplitSum = currencyExchangeService.convert(command.getCurrency(),
-                        accountt.getCurrency(), splitSum);
-
-                accountt.setBalance(accountt.getBalance() - convertedSplitSum);
-                newTransaction.setIban(accountt.getIban());
-
-                User user = findUserByIban(accountt.getIban());
-
-                user.addTransaction(newTransaction);
+            for (int i = 0; i < involvedAccounts.size(); i++) {
+                Account accountt = involvedAccounts.get(i);
+                accountt.setBalance(accountt.getBalance() - convertedSplitSums[i]);
             }
         } else {
-            newTransaction.setError("Account " + poorIban
-                    + " has insufficient funds for a split payment.");
-            for (Account accountt : involvedAccounts) {
-                newTransaction.setIban(accountt.getIban());
-
-                User user = findUserByIban(accountt.getIban());
-
-                user.addTransaction(newTransaction);
-            }
+            error = "Account " + poorIban + " has insufficient funds for a split payment.";
+        }
 
+        // Every participant gets its own small entry over the shared payment
+        for (Account accountt : involvedAccounts) {
+            User user = findUserByIban(accountt.getIban());
+            user.addTransaction(new SplitPaymentTransaction(command.getTimestamp(), payment,
+                    accountt.getIban(), error));
         }
     }
 
@@ -699,7 +680,6 @@ public class UserService {
      */
     public Report generateReport(final CommandInput command) {
         Account currAccount = findAccountByIBAN(command.getAccount());
-        List<Transaction> transactions = new ArrayList<>();
 
         if (currAccount == null) {
             throw new IllegalArgumentException("Account not found");
@@ -707,23 +687,12 @@ public class UserService {
 
         User currUser = findUserByIban(currAccount.getIban());
 
-        if (currAccount.getType().equalsIgnoreCase("savings")) {
-
-            for (Transaction transaction : currUser.getTransactions()) {
-                if (transaction.getType() == TransactionType.INTEREST
-                        && transaction.getTimestamp() >= command.getStartTimestamp()
-                        && transaction.getTimestamp() <= command.getEndTimestamp()) {
-                    transactions.add(transaction);
-                }
-            }
-        } else {
-            for (Transaction transaction : currUser.getTransactions()) {
-                if (transaction.getTimestamp() >= command.getStartTimestamp()
-                        && transaction.getTimestamp() <= command.getEndTimestamp()) {
-                    transactions.add(transaction);
-                }
-            }
-        }
+        // Only the transactions inside the window are visited
+        TransactionLog log = currAccount.getType().equalsIgnoreCase("savings")
+                ? currUser.getTransactions(TransactionType.INTEREST)
+                : currUser.getTransactions();
+        List<Transaction> transactions =
+                log.between(command.getStartTimestamp(), command.getEndTimestamp());
 
         // Include balance and currency in the result
         double balance = currAccount.getBalance(); // Assuming Account has getBalance()
@@ -753,17 +722,16 @@ public class UserService {
                     + "supported for a saving account");
         }
 
-        for (Transaction transaction : user.getTransactions()) {
-            if (transaction.getType() == TransactionType.PAY_ONLINE
-                    && transaction.getIban().equalsIgnoreCase(command.getAccount())
-                    && transaction.getTimestamp() >= command.getStartTimestamp()
-                    && transaction.getTimestamp() <= command.getEndTimestamp()) {
-                transactions.add((PayOnlineTransaction) transaction);
-            }
+        TransactionLog payments = user.getTransactions(command.getAccount(),
+                TransactionType.PAY_ONLINE);
+        for (Transaction transaction
+                : payments.between(command.getStartTimestamp(), command.getEndTimestamp())) {
+            transactions.add((PayOnlineTransaction) transaction);
         }
 
         return new SpendingsReport(transactions, currAccount.getBalance(),
-                currAccount.getCurrency());
+                currAccount.getCurrency(), currAccount.getSpendings().totalsBetween(
+                        command.getStartTimestamp(), command.getEndTimestamp()));
     }
 
     /**
@@ -776,11 +744,13 @@ public class UserService {
      */
     public void regenOneTimeCard(final Account account, final Card card,
                                  final String email, final int timestamp) {
+        User user = findUserByIban(account.getIban());
+        users.getCards().remove(card);
         account.getCards().remove(card);
-        String cardNumber = Utils.generateCardNumber();
+        String cardNumber = context.nextCardNumber();
         OneTimeCard oneTimeCard = new OneTimeCard(cardNumber, account.getIban());
         account.addCard(oneTimeCard);
-        User user = findUserByIban(account.getIban());
+        users.getCards().add(oneTimeCard, account, user);
         user.addTransaction(new DeleteCardTransaction(email, card.getCardNumber(),
                 timestamp, account.getIban()));
         user.addTransaction(new CreateCardTransaction(oneTimeCard.getCardNumber(), email,
@@ -0,0 +1,57 @@
+package org.poo.transactions;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the rows of a TransactionStore in parallel arrays on the heap.
+ */
+final class HeapColumns implements TransactionColumns {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int[][] ints = new int[INT_FIELDS][INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+
+    @Override
+    public void ensureCapacity(final int rows) {
+        if (rows <= types.length) {
+            return;
+        }
+        int capacity = Math.max(rows, types.length * 2);
+        for (int i = 0; i < INT_FIELDS; i++) {
+            ints[i] = Arrays.copyOf(ints[i], capacity);
+        }
+        types = Arrays.copyOf(types, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+    }
+
+    @Override
+    public void putInt(final int row, final int field, final int value) {
+        ints[field][row] = value;
+    }
+
+    @Override
+    public int getInt(final int row, final int field) {
+        return ints[field][row];
+    }
+
+    @Override
+    public void putType(final int row, final byte type) {
+        types[row] = type;
+    }
+
+    @Override
+    public byte getType(final int row) {
+        return types[row];
+    }
+
+    @Override
+    public void putAmount(final int row, final double amount) {
+        amounts[row] = amount;
+    }
+
+    @Override
+    public double getAmount(final int row) {
+        return amounts[row];
+    }
+}
@@ -0,0 +1,107 @@
+package org.poo.transactions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the rows of a TransactionStore in an append-only journal file, mapped into
+ * memory one segment at a time. Every row takes ROW_BYTES bytes:
+ * the int fields in order, then the amount, then the type code and padding.
+ * Reads and writes go straight to the mapped pages, nothing is copied to the heap.
+ * Closing the columns drops the references to the segments, so that their mappings can
+ * be released once the buffers are collected, and deletes the journal. Where a file that
+ * is still mapped cannot be deleted (e.g. on Windows), it is deleted when the JVM exits.
+ */
+final class MappedColumns implements TransactionColumns {
+    private static final int AMOUNT_OFFSET = INT_FIELDS * Integer.BYTES;
+    private static final int TYPE_OFFSET = AMOUNT_OFFSET + Double.BYTES;
+    private static final int ROW_BYTES = 48; // Keeps the amounts 8-byte aligned
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_ROWS * ROW_BYTES;
+
+    private final Path file;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * Constructs the columns over a journal file, which is created or truncated.
+     *
+     * @param file the journal file
+     * @throws IOException if the file cannot be created
+     */
+    MappedColumns(final Path file) throws IOException {
+        this.file = file;
+        Files.write(file, new byte[0]);
+    }
+
+    @Override
+    public void ensureCapacity(final int rows) {
+        while ((long) segments.size() * SEGMENT_ROWS < rows) {
+            // A mapping stays valid after its channel is closed
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE,
+                        segments.size() * SEGMENT_BYTES, SEGMENT_BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot grow journal " + file, e);
+            }
+        }
+    }
+
+    @Override
+    public void putInt(final int row, final int field, final int value) {
+        segment(row).putInt(offset(row) + field * Integer.BYTES, value);
+    }
+
+    @Override
+    public int getInt(final int row, final int field) {
+        return segment(row).getInt(offset(row) + field * Integer.BYTES);
+    }
+
+    @Override
+    public void putType(final int row, final byte type) {
+        segment(row).put(offset(row) + TYPE_OFFSET, type);
+    }
+
+    @Override
+    public byte getType(final int row) {
+        return segment(row).get(offset(row) + TYPE_OFFSET);
+    }
+
+    @Override
+    public void putAmount(final int row, final double amount) {
+        segment(row).putDouble(offset(row) + AMOUNT_OFFSET, amount);
+    }
+
+    @Override
+    public double getAmount(final int row) {
+        return segment(row).getDouble(offset(row) + AMOUNT_OFFSET);
+    }
+
+    private MappedByteBuffer segment(final int row) {
+        return segments.get(row >>> SEGMENT_SHIFT);
+    }
+
+    @Override
+    public void close() {
+        // Mappings cannot be unmapped explicitly, they go once the buffers are collected
+        segments.clear();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The file is still mapped and the system refuses to delete it
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static int offset(final int row) {
+        return (row & (SEGMENT_ROWS - 1)) * ROW_BYTES;
+    }
+}
@@ -1,10 +1,11 @@
 package org.poo.transactions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.IOException;
+
 @Getter
 @Setter
 public class PayOnlineTransaction extends Transaction {
@@ -21,18 +22,25 @@ public class PayOnlineTransaction extends Transaction {
     }
 
     /**
-     * Converts the transaction details into a JSON representation.
+     * Tells whether the JSON of this kind of transaction can be cached once it is stored.
+     *
+     * @return true, the transaction never changes after it is recorded
+     */
+    @Override
+    protected boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Writes the fields of the transaction to a JSON object being generated.
      *
-     * @return an ObjectNode containing the transaction details
+     * @param gen the generator, positioned inside the transaction's object
+     * @throws IOException if the output cannot be written
      */
     @Override
-    public ObjectNode toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", getTimestamp());
-        node.put("description", getDescription());
-        node.put("amount", amount);
-        node.put("commerciant", commerciant);
-        return node;
+    protected void writeFields(final JsonGenerator gen) throws IOException {
+        super.writeFields(gen);
+        gen.writeNumberField("amount", amount);
+        gen.writeStringField("commerciant", commerciant);
     }
 }
@@ -1,8 +1,11 @@
 package org.poo.transactions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
 
+import java.io.IOException;
+
+@Getter
 public class SendMoneyTransaction extends Transaction {
     private final String senderIban;
     private final String receiverIban;
@@ -36,20 +39,27 @@ public class SendMoneyTransaction extends Transaction {
     }
 
     /**
-     * Converts the transaction details into a JSON representation.
+     * Tells whether the JSON of this kind of transaction can be cached once it is stored.
+     *
+     * @return true, the transaction never changes after it is recorded
+     */
+    @Override
+    protected boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Writes the fields of the transaction to a JSON object being generated.
      *
-     * @return an ObjectNode containing the transaction details
+     * @param gen the generator, positioned inside the transaction's object
+     * @throws IOException if the output cannot be written
      */
     @Override
-    public ObjectNode toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", getTimestamp());
-        node.put("description", getDescription());
-        node.put("senderIBAN", senderIban);
-        node.put("receiverIBAN", receiverIban);
-        node.put("amount", amount + " " + currency);
-        node.put("transferType", transactionType);
-        return node;
+    protected void writeFields(final JsonGenerator gen) throws IOException {
+        super.writeFields(gen);
+        gen.writeStringField("senderIBAN", senderIban);
+        gen.writeStringField("receiverIBAN", receiverIban);
+        gen.writeStringField("amount", amount + " " + currency);
+        gen.writeStringField("transferType", transactionType);
     }
 }
@@ -0,0 +1,22 @@
+package org.poo.transactions;
+
+import java.util.List;
+
+/**
+ * The part of a split payment shared by all of its participants. It is immutable,
+ * so one instance backs the transaction of every involved account.
+ *
+ * @param description the description of the payment
+ * @param currency the currency of the payment
+ * @param amount the share paid by every account
+ * @param accounts the IBANs of the involved accounts, in input order
+ */
+public record SplitPayment(String description, String currency, double amount,
+                           List<String> accounts) {
+    /**
+     * Constructs a SplitPayment, keeping its own copy of the account list.
+     */
+    public SplitPayment {
+        accounts = List.copyOf(accounts);
+    }
+}
@@ -1,58 +1,53 @@
 package org.poo.transactions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
-import lombok.Setter;
 
-import java.util.List;
+import java.io.IOException;
 
+/**
+ * The entry of one participant in a split payment: the shared payment details
+ * together with the participant's own IBAN and error.
+ */
 @Getter
-@Setter
 public class SplitPaymentTransaction extends Transaction {
-    private final String currency;
-    private final double sum;
-    private final List<String> accountList;
-    private String error;
+    private final SplitPayment payment;
+    private final String error;
 
     /**
      * Constructs a SplitPaymentTransaction instance.
      *
-     * @param timestamp   the timestamp of the transaction
-     * @param description a description of the transaction
-     * @param currency    the currency of the payment
-     * @param sum         the total amount to be split
-     * @param accountList the list of accounts involved in the split payment
+     * @param timestamp the timestamp of the transaction
+     * @param payment   the details shared by all the participants
+     * @param iban      the IBAN of the participant's account
+     * @param error     the reason the payment failed, or null if it went through
      */
-    public SplitPaymentTransaction(final int timestamp, final String description,
-                                   final String currency, final double sum,
-                                   final List<String> accountList) {
-        super(description, timestamp);
-        this.currency = currency;
-        this.sum = sum;
-        this.accountList = accountList;
+    public SplitPaymentTransaction(final int timestamp, final SplitPayment payment,
+                                   final String iban, final String error) {
+        super(payment.description(), timestamp, iban);
+        this.payment = payment;
+        this.error = error;
         setType(TransactionType.SPLIT_PAYMENT);
     }
 
     /**
-     * Converts the transaction details into a JSON representation.
+     * Writes the fields of the transaction to a JSON object being generated.
      *
-     * @return an ObjectNode containing the transaction details
+     * @param gen the generator, positioned inside the transaction's object
+     * @throws IOException if the output cannot be written
      */
     @Override
-    public ObjectNode toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", getTimestamp());
-        node.put("description", getDescription());
-        node.put("currency", currency);
-        node.put("amount", sum);
-        node.putArray("involvedAccounts").addAll(
-                mapper.convertValue(accountList, ArrayNode.class));
+    protected void writeFields(final JsonGenerator gen) throws IOException {
+        super.writeFields(gen);
+        gen.writeStringField("currency", payment.currency());
+        gen.writeNumberField("amount", payment.amount());
+        gen.writeArrayFieldStart("involvedAccounts");
+        for (String account : payment.accounts()) {
+            gen.writeString(account);
+        }
+        gen.writeEndArray();
         if (error != null) {
-            node.put("error", error);
+            gen.writeStringField("error", error);
         }
-        return node;
     }
 }
@@ -1,21 +1,35 @@
 package org.poo.transactions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.IOException;
+
 /**
- * Represents a generic financial transaction.
+ * Represents a generic financial transaction. Transactions write themselves straight
+ * to the JSON generator of the output, so they can be added to a tree as POJOs.
  */
 @Getter
 @Setter
-public class Transaction {
+public class Transaction extends JsonSerializable.Base {
+    public static final int NO_ROW = -1;
+
     private int timestamp;
     private String description;
     private TransactionType type;
     private String iban;
 
+    // Row of the transaction in a TransactionStore, if it was read from one
+    @Setter(AccessLevel.PACKAGE)
+    private int row = NO_ROW;
+
     /**
      * Constructs a Transaction with a description, timestamp, and associated IBAN.
      *
@@ -41,15 +55,70 @@ public class Transaction {
     }
 
     /**
-     * Converts the transaction details into a JSON representation.
+     * Writes the transaction as a JSON object.
+     *
+     * @param gen the generator to write to
+     * @param serializers the provider of the serialization in progress
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public final void serialize(final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        TransactionJsonCache cache = TransactionJsonCache.from(serializers);
+        if (cache != null && row != NO_ROW && isCacheable() && cache.write(this, gen)) {
+            return;
+        }
+        writeObject(gen);
+    }
+
+    /**
+     * Writes the transaction as a JSON object, together with its type id.
+     *
+     * @param gen the generator to write to
+     * @param serializers the provider of the serialization in progress
+     * @param typeSer the serializer of the type id
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public final void serializeWithType(final JsonGenerator gen,
+                                        final SerializerProvider serializers,
+                                        final TypeSerializer typeSer) throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen,
+                typeSer.typeId(this, JsonToken.START_OBJECT));
+        writeFields(gen);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    /**
+     * Writes the transaction as a JSON object, field by field.
+     *
+     * @param gen the generator to write to
+     * @throws IOException if the output cannot be written
+     */
+    final void writeObject(final JsonGenerator gen) throws IOException {
+        gen.writeStartObject(this);
+        writeFields(gen);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Tells whether the JSON of this kind of transaction can be cached once it is stored.
+     *
+     * @return true if the transaction never changes after it is recorded
+     */
+    protected boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * Writes the fields of the transaction to a JSON object being generated.
+     * Subclasses add their own fields after these.
      *
-     * @return an ObjectNode containing the transaction details
+     * @param gen the generator, positioned inside the transaction's object
+     * @throws IOException if the output cannot be written
      */
-    public ObjectNode toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", timestamp);
-        node.put("description", description);
-        return node;
+    protected void writeFields(final JsonGenerator gen) throws IOException {
+        gen.writeNumberField("timestamp", timestamp);
+        gen.writeStringField("description", description);
     }
 }
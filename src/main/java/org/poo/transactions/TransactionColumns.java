@@ -0,0 +1,86 @@
+package org.poo.transactions;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Fixed-width storage for the rows of a TransactionStore. Every row has the same
+ * fields: a few ints, one type byte and one amount.
+ */
+interface TransactionColumns extends Closeable {
+    // The int fields of a row
+    int TIMESTAMP = 0;
+    int IBAN = 1;
+    int DESCRIPTION = 2;
+    int FIRST_TEXT = 3; // Followed by TEXT_FIELDS string ids
+    int TEXT_FIELDS = 4;
+    int PAYLOAD = FIRST_TEXT + TEXT_FIELDS;
+    int INT_FIELDS = PAYLOAD + 1;
+
+    /**
+     * Makes room for at least a number of rows.
+     *
+     * @param rows the number of rows needed
+     */
+    void ensureCapacity(int rows);
+
+    /**
+     * Writes an int field of a row.
+     *
+     * @param row the row
+     * @param field one of the int fields
+     * @param value the value to write
+     */
+    void putInt(int row, int field, int value);
+
+    /**
+     * Reads an int field of a row.
+     *
+     * @param row the row
+     * @param field one of the int fields
+     * @return the value of the field
+     */
+    int getInt(int row, int field);
+
+    /**
+     * Writes the type code of a row.
+     *
+     * @param row the row
+     * @param type the type code
+     */
+    void putType(int row, byte type);
+
+    /**
+     * Reads the type code of a row.
+     *
+     * @param row the row
+     * @return the type code
+     */
+    byte getType(int row);
+
+    /**
+     * Writes the amount of a row.
+     *
+     * @param row the row
+     * @param amount the amount
+     */
+    void putAmount(int row, double amount);
+
+    /**
+     * Reads the amount of a row.
+     *
+     * @param row the row
+     * @return the amount
+     */
+    double getAmount(int row);
+
+    /**
+     * Releases the storage of the rows; they cannot be used afterwards.
+     * Storage on the heap has nothing to release.
+     *
+     * @throws IOException if the storage cannot be released
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,142 @@
+package org.poo.transactions;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the JSON of stored transactions that never change, so that printing them again
+ * only copies the text into the output. The text is indented for the depth it is written
+ * at, so an entry is kept for every store row and object depth. The least recently used
+ * entries are dropped once the cache goes over its memory budget.
+ * <p>
+ * The cache is handed to the serialization as an attribute of the ObjectWriter, under
+ * the key TransactionJsonCache.class.
+ */
+public final class TransactionJsonCache {
+    // Rough cost of an entry besides its characters: the map node, the key and the strings
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final long budget;
+    private long usedBytes;
+    private final Map<Long, SerializedString> fragments =
+            new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param budget the approximate number of bytes the cached JSON may take
+     */
+    public TransactionJsonCache(final long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the cache attached to a serialization, if any.
+     *
+     * @param serializers the provider of the serialization in progress
+     * @return the cache, or null if the serialization runs without one
+     */
+    static TransactionJsonCache from(final SerializerProvider serializers) {
+        if (serializers == null) {
+            return null;
+        }
+        Object cache = serializers.getAttribute(TransactionJsonCache.class);
+        return cache instanceof TransactionJsonCache ? (TransactionJsonCache) cache : null;
+    }
+
+    /**
+     * Writes a stored transaction from the cache, encoding it first if it is not cached.
+     * Only output using the default pretty printer can be cached, since that is the
+     * layout the cached text is produced with.
+     *
+     * @param transaction a transaction read from a store
+     * @param gen the generator of the output
+     * @return true if the transaction was written, false if the caller must write it
+     * @throws IOException if the output cannot be written
+     */
+    boolean write(final Transaction transaction, final JsonGenerator gen) throws IOException {
+        PrettyPrinter printer = gen.getPrettyPrinter();
+        if (printer == null || printer.getClass() != DefaultPrettyPrinter.class) {
+            return false;
+        }
+
+        int nesting = objectNesting(gen.getOutputContext());
+        Long key = ((long) transaction.getRow() << Integer.SIZE) | nesting;
+        SerializedString fragment = fragments.get(key);
+        if (fragment == null) {
+            fragment = new SerializedString(encode(transaction, nesting));
+            fragments.put(key, fragment);
+            usedBytes += cost(fragment);
+            evict();
+        }
+        gen.writeRawValue(fragment);
+        return true;
+    }
+
+    /**
+     * Writes a transaction on its own, indented as if it were nested in other objects.
+     *
+     * @param transaction the transaction to encode
+     * @param nesting the number of objects around the transaction
+     * @return the JSON of the transaction
+     * @throws IOException if the transaction cannot be written
+     */
+    private static String encode(final Transaction transaction, final int nesting)
+            throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator fragmentGen = FACTORY.createGenerator(out)) {
+            fragmentGen.setPrettyPrinter(new NestedPrettyPrinter(nesting));
+            transaction.writeObject(fragmentGen);
+        }
+        return out.toString();
+    }
+
+    private static int objectNesting(final JsonStreamContext context) {
+        int nesting = 0;
+        for (JsonStreamContext current = context; current != null;
+                current = current.getParent()) {
+            if (current.inObject()) {
+                nesting++;
+            }
+        }
+        return nesting;
+    }
+
+    private static long cost(final SerializedString fragment) {
+        return ENTRY_OVERHEAD + (long) Character.BYTES * fragment.charLength();
+    }
+
+    private void evict() {
+        Iterator<SerializedString> eldest = fragments.values().iterator();
+        while (usedBytes > budget && eldest.hasNext()) {
+            usedBytes -= cost(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * The default pretty printer, starting as if it were already inside some objects.
+     */
+    private static final class NestedPrettyPrinter extends DefaultPrettyPrinter {
+        private static final long serialVersionUID = 1L;
+
+        NestedPrettyPrinter(final int nesting) {
+            _nesting = nesting;
+        }
+    }
+}
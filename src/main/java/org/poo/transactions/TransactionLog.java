@@ -0,0 +1,159 @@
+package org.poo.transactions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A history of transactions that is always ordered by timestamp.
+ * Transactions with the same timestamp keep the order they were added in.
+ * The log only holds row ids into a TransactionStore; transactions are rebuilt
+ * from the store when they are read. Outside this package a log is read-only:
+ * rows are added through TransactionStore.append.
+ */
+public class TransactionLog implements Iterable<Transaction> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final TransactionStore store;
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Constructs an empty log over a store.
+     *
+     * @param store the store holding the transactions of the log
+     */
+    public TransactionLog(final TransactionStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a stored transaction to the log, keeping it ordered by timestamp.
+     * Transactions normally arrive in order and are simply appended; a late one
+     * is moved back from the tail until it reaches its place.
+     *
+     * @param row the id of the transaction's row in the store
+     */
+    void add(final int row) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        int timestamp = store.timestamp(row);
+        int position = size;
+        while (position > 0 && store.timestamp(rows[position - 1]) > timestamp) {
+            rows[position] = rows[position - 1];
+            position--;
+        }
+        rows[position] = row;
+        size++;
+    }
+
+    /**
+     * Returns the transaction at a position of the log.
+     *
+     * @param index the position of the transaction
+     * @return the transaction at that position
+     */
+    public Transaction get(final int index) {
+        return store.read(rowAt(index));
+    }
+
+    /**
+     * Returns the store row of the transaction at a position of the log.
+     *
+     * @param index the position of the transaction
+     * @return the id of its row in the store
+     */
+    public int rowAt(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for "
+                    + size);
+        }
+        return rows[index];
+    }
+
+    /**
+     * Returns the transactions whose timestamps fall inside a window.
+     * Both ends of the window are found by binary search over the timestamp column,
+     * so only the transactions inside the window are rebuilt.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive
+     * @param endTimestamp the last timestamp of the window, inclusive
+     * @return a new list with the transactions inside the window
+     */
+    public List<Transaction> between(final int startTimestamp, final int endTimestamp) {
+        int from = firstAfter(startTimestamp - 1L);
+        int to = firstAfter(endTimestamp);
+        List<Transaction> window = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            window.add(store.read(rows[i]));
+        }
+        return window;
+    }
+
+    /**
+     * Returns the number of transactions in the log.
+     *
+     * @return the size of the log
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first transaction newer than a timestamp.
+     *
+     * @param timestamp the timestamp to search for
+     * @return the position of the first transaction with a greater timestamp
+     */
+    /**
+     * Tells whether the log indexes the rows of a store.
+     *
+     * @param owner the store
+     * @return true if the log's rows are ids into that store
+     */
+    boolean isOver(final TransactionStore owner) {
+        return store == owner;
+    }
+
+    private int firstAfter(final long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (store.timestamp(rows[middle]) <= timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Iterates over the transactions in timestamp order, rebuilding them one at a time.
+     *
+     * @return an iterator over the log
+     */
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return store.read(rows[next++]);
+            }
+        };
+    }
+}
@@ -0,0 +1,232 @@
+package org.poo.transactions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Column-oriented storage for transactions. Every transaction is a fixed-width row of
+ * primitive fields, kept either in parallel arrays on the heap or in a memory-mapped
+ * journal, and its strings are kept as ids into shared dictionaries.
+ * Transaction objects are only rebuilt from a row when somebody reads it.
+ * <p>
+ * Only the rows can live outside the heap. The dictionaries of strings and split
+ * payments always stay on the heap, so they still grow with the number of distinct
+ * values in the history (not with the number of rows).
+ */
+public final class TransactionStore implements Closeable {
+    private static final byte NO_TYPE = 0;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    // Positions in the string fields, each kind of transaction gives them its own meaning
+    private static final int FIRST = 0;
+    private static final int SECOND = 1;
+    private static final int THIRD = 2;
+    private static final int FOURTH = 3;
+
+    private final ValueDictionary<String> strings = ValueDictionary.byEquality();
+    // Split payments are stored once and shared by the rows of all their participants
+    private final ValueDictionary<SplitPayment> payments = ValueDictionary.byIdentity();
+    private final TransactionColumns columns;
+    private int size;
+
+    /**
+     * Constructs a store keeping its rows on the heap.
+     */
+    public TransactionStore() {
+        this(new HeapColumns());
+    }
+
+    private TransactionStore(final TransactionColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a store whose rows are appended to a memory-mapped journal file,
+     * so that the rows do not live on the heap. The string and split payment
+     * dictionaries are still kept in memory. Closing the store deletes the journal,
+     * or schedules it for deletion at exit where a mapped file cannot be deleted.
+     *
+     * @param journal the journal file, created or truncated
+     * @return the new store
+     * @throws IOException if the journal cannot be created
+     */
+    public static TransactionStore mapped(final Path journal) throws IOException {
+        return new TransactionStore(new MappedColumns(journal));
+    }
+
+    /**
+     * Stores a transaction as a new row. Later changes to the transaction object
+     * are not seen by the store.
+     *
+     * @param transaction the transaction to be stored
+     * @return the id of the row
+     */
+    public int append(final Transaction transaction) {
+        columns.ensureCapacity(size + 1);
+        int row = size;
+        TransactionType type = transaction.getType();
+        columns.putInt(row, TransactionColumns.TIMESTAMP, transaction.getTimestamp());
+        columns.putType(row, type == null ? NO_TYPE : (byte) (type.ordinal() + 1));
+        columns.putAmount(row, 0);
+        columns.putInt(row, TransactionColumns.IBAN, strings.encode(transaction.getIban()));
+        columns.putInt(row, TransactionColumns.DESCRIPTION,
+                strings.encode(transaction.getDescription()));
+        for (int i = 0; i < TransactionColumns.TEXT_FIELDS; i++) {
+            setText(i, row, null);
+        }
+        columns.putInt(row, TransactionColumns.PAYLOAD, ValueDictionary.NONE);
+
+        if (transaction instanceof CreateCardTransaction createCard) {
+            setText(FIRST, row, createCard.getCardNum());
+            setText(SECOND, row, createCard.getCardHolder());
+            setText(THIRD, row, createCard.getAccount());
+        } else if (transaction instanceof DeleteCardTransaction deleteCard) {
+            setText(FIRST, row, deleteCard.getCardNumber());
+            setText(SECOND, row, deleteCard.getCardHolder());
+        } else if (transaction instanceof PayOnlineTransaction payOnline) {
+            columns.putAmount(row, payOnline.getAmount());
+            setText(FIRST, row, payOnline.getCommerciant());
+        } else if (transaction instanceof SendMoneyTransaction sendMoney) {
+            columns.putAmount(row, sendMoney.getAmount());
+            setText(FIRST, row, sendMoney.getSenderIban());
+            setText(SECOND, row, sendMoney.getReceiverIban());
+            setText(THIRD, row, sendMoney.getCurrency());
+            setText(FOURTH, row, sendMoney.getTransactionType());
+        } else if (transaction instanceof SplitPaymentTransaction splitPayment) {
+            setText(FIRST, row, splitPayment.getError());
+            columns.putInt(row, TransactionColumns.PAYLOAD,
+                    payments.encode(splitPayment.getPayment()));
+        }
+        size++;
+        return row;
+    }
+
+    /**
+     * Stores a transaction as a new row and adds the row to some logs over this store.
+     *
+     * @param transaction the transaction to be stored
+     * @param logs the logs recording the transaction; null entries are skipped
+     * @return the id of the row
+     * @throws IllegalArgumentException if a log is over another store
+     */
+    public int append(final Transaction transaction, final TransactionLog... logs) {
+        for (TransactionLog log : logs) {
+            if (log != null && !log.isOver(this)) {
+                throw new IllegalArgumentException("The log is over another store");
+            }
+        }
+        int row = append(transaction);
+        for (TransactionLog log : logs) {
+            if (log != null) {
+                log.add(row);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Rebuilds the transaction stored in a row.
+     *
+     * @param row the id of the row
+     * @return a new transaction object holding the row's values
+     */
+    public Transaction read(final int row) {
+        Transaction transaction = decode(row);
+        transaction.setRow(row);
+        return transaction;
+    }
+
+    private Transaction decode(final int row) {
+        TransactionType type = typeAt(row);
+        int timestamp = columns.getInt(row, TransactionColumns.TIMESTAMP);
+        String description = strings.decode(columns.getInt(row, TransactionColumns.DESCRIPTION));
+        String iban = strings.decode(columns.getInt(row, TransactionColumns.IBAN));
+        double amount = columns.getAmount(row);
+        if (type == null) {
+            return new Transaction(description, timestamp, iban);
+        }
+
+        switch (type) {
+            case CREATE_CARD:
+                return new CreateCardTransaction(text(FIRST, row), text(SECOND, row),
+                        text(THIRD, row), timestamp, description, iban);
+            case DELETE_CARD:
+                return new DeleteCardTransaction(text(SECOND, row), text(FIRST, row),
+                        timestamp, iban);
+            case PAY_ONLINE:
+                return new PayOnlineTransaction(amount, text(FIRST, row),
+                        description, timestamp, iban);
+            case SEND_MONEY:
+                return new SendMoneyTransaction(text(FIRST, row), text(SECOND, row),
+                        amount, text(THIRD, row), text(FOURTH, row), description,
+                        timestamp, iban);
+            case SPLIT_PAYMENT:
+                return new SplitPaymentTransaction(timestamp,
+                        payments.decode(columns.getInt(row, TransactionColumns.PAYLOAD)),
+                        iban, text(FIRST, row));
+            default:
+                Transaction transaction = new Transaction(description, timestamp, iban);
+                transaction.setType(type);
+                return transaction;
+        }
+    }
+
+    /**
+     * Returns the timestamp of a row, without rebuilding its transaction.
+     *
+     * @param row the id of the row
+     * @return the timestamp of the row
+     */
+    public int timestamp(final int row) {
+        checkRow(row);
+        return columns.getInt(row, TransactionColumns.TIMESTAMP);
+    }
+
+    /**
+     * Returns the type of a row, without rebuilding its transaction.
+     *
+     * @param row the id of the row
+     * @return the type of the row, or null for a generic transaction
+     */
+    public TransactionType typeAt(final int row) {
+        checkRow(row);
+        byte type = columns.getType(row);
+        return type == NO_TYPE ? null : TYPES[type - 1];
+    }
+
+    /**
+     * Returns the number of rows in the store.
+     *
+     * @return the number of stored transactions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases the storage of the rows and deletes the journal of a mapped store, or
+     * schedules it for deletion at exit if it is still mapped.
+     * The store and the logs over it cannot be used afterwards.
+     *
+     * @throws IOException if the journal cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        columns.close();
+    }
+
+    private void setText(final int position, final int row, final String value) {
+        columns.putInt(row, TransactionColumns.FIRST_TEXT + position, strings.encode(value));
+    }
+
+    private String text(final int position, final int row) {
+        return strings.decode(columns.getInt(row, TransactionColumns.FIRST_TEXT + position));
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No transaction row " + row);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.poo.transactions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every distinct value a small int id, so that columns can store the id
+ * instead of a reference to a value that repeats across many rows.
+ *
+ * @param <T> the type of the encoded values
+ */
+final class ValueDictionary<T> {
+    static final int NONE = -1;
+
+    private final Map<T, Integer> ids;
+    private final List<T> values = new ArrayList<>();
+
+    private ValueDictionary(final Map<T, Integer> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Creates a dictionary where equal values share an id.
+     *
+     * @param <T> the type of the encoded values
+     * @return the new dictionary
+     */
+    static <T> ValueDictionary<T> byEquality() {
+        return new ValueDictionary<>(new HashMap<>());
+    }
+
+    /**
+     * Creates a dictionary where only the very same instance shares an id. Encoding
+     * then never looks inside the value, which suits large shared objects.
+     *
+     * @param <T> the type of the encoded values
+     * @return the new dictionary
+     */
+    static <T> ValueDictionary<T> byIdentity() {
+        return new ValueDictionary<>(new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns the id of a value, giving it a new one if it has none yet.
+     *
+     * @param value the value to encode, may be null
+     * @return the id of the value, or NONE for null
+     */
+    int encode(final T value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the value behind an id.
+     *
+     * @param id an id returned by encode
+     * @return the value, or null for NONE
+     */
+    T decode(final int id) {
+        return id == NONE ? null : values.get(id);
+    }
+}
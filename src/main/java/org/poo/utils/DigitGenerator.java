@@ -0,0 +1,50 @@
+package org.poo.utils;
+
+/**
+ * Generates random decimal digits with the same linear congruential sequence as
+ * {@code new java.util.Random(seed).nextInt(10)}, so the generated identifiers stay the
+ * same. Unlike Random, the state is a plain field: a generator must only be used by one
+ * thread at a time, which lets every digit skip the atomic update of the seed.
+ */
+public final class DigitGenerator {
+    // Constants of the java.util.Random generator
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = 0xFFFFFFFFFFFFL;
+    // Random.nextInt(bound) draws 31 bits, the top ones of the 48-bit state
+    private static final int UNUSED_BITS = 17;
+
+    private static final int DIGITS = 10;
+
+    private long state;
+
+    /**
+     * Constructs a generator starting from a seed.
+     *
+     * @param seed the seed, as given to the Random constructor
+     */
+    public DigitGenerator(final long seed) {
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * Returns the next digit of the sequence.
+     *
+     * @return a digit between 0 and 9
+     */
+    public int nextDigit() {
+        int bits = next();
+        int digit = bits % DIGITS;
+        // Values from the incomplete last block are drawn again, as Random does
+        while (bits - digit + (DIGITS - 1) < 0) {
+            bits = next();
+            digit = bits % DIGITS;
+        }
+        return digit;
+    }
+
+    private int next() {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> UNUSED_BITS);
+    }
+}
@@ -1,37 +1,33 @@
 package org.poo.utils;
 
-import java.util.Random;
-
 public final class Utils {
     private Utils() {
         // Checkstyle error free constructor
     }
 
-    private static final int IBAN_SEED = 1;
-    private static final int CARD_SEED = 2;
-    private static final int DIGIT_BOUND = 10;
+    public static final int IBAN_SEED = 1;
+    public static final int CARD_SEED = 2;
     private static final int DIGIT_GENERATION = 16;
     private static final String RO_STR = "RO";
     private static final String POO_STR = "POOB";
-
-
-    private static Random ibanRandom = new Random(IBAN_SEED);
-    private static Random cardRandom = new Random(CARD_SEED);
+    private static final int IBAN_LENGTH = RO_STR.length() * 2 + POO_STR.length()
+            + DIGIT_GENERATION;
 
     /**
      * Utility method for generating an IBAN code.
      *
+     * @param digits the generator of the IBANs of the run, seeded with IBAN_SEED
      * @return the IBAN as String
      */
-    public static String generateIBAN() {
-        StringBuilder sb = new StringBuilder(RO_STR);
+    public static String generateIBAN(final DigitGenerator digits) {
+        StringBuilder sb = new StringBuilder(IBAN_LENGTH).append(RO_STR);
         for (int i = 0; i < RO_STR.length(); i++) {
-            sb.append(ibanRandom.nextInt(DIGIT_BOUND));
+            sb.append(digits.nextDigit());
         }
 
         sb.append(POO_STR);
         for (int i = 0; i < DIGIT_GENERATION; i++) {
-            sb.append(ibanRandom.nextInt(DIGIT_BOUND));
+            sb.append(digits.nextDigit());
         }
 
         return sb.toString();
@@ -40,22 +36,15 @@ public final class Utils {
     /**
      * Utility method for generating a card number.
      *
+     * @param digits the generator of the card numbers of the run, seeded with CARD_SEED
      * @return the card number as String
      */
-    public static String generateCardNumber() {
-        StringBuilder sb = new StringBuilder();
+    public static String generateCardNumber(final DigitGenerator digits) {
+        StringBuilder sb = new StringBuilder(DIGIT_GENERATION);
         for (int i = 0; i < DIGIT_GENERATION; i++) {
-            sb.append(cardRandom.nextInt(DIGIT_BOUND));
+            sb.append(digits.nextDigit());
         }
 
         return sb.toString();
     }
-
-    /**
-     * Resets the seeds between runs.
-     */
-    public static void resetRandom() {
-        ibanRandom = new Random(IBAN_SEED);
-        cardRandom = new Random(CARD_SEED);
-    }
 }
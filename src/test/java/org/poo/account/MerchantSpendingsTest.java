@@ -0,0 +1,83 @@
+package org.poo.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MerchantSpendingsTest {
+    private static final String[] MERCHANTS = {"Amazon", "Bolt", "Carrefour", "Decathlon"};
+    private static final int PAYMENTS = 3_000;
+    private static final int WINDOWS = 500;
+    private static final int SHORT_WINDOW = 64;
+    private static final double TOLERANCE = 1e-9;
+
+    private record Payment(String merchant, int timestamp, double amount) {
+    }
+
+    @Test
+    void windowTotalsMatchAddingThePaymentsUp() {
+        Random random = new Random(11);
+        MerchantSpendings spendings = new MerchantSpendings();
+        List<Payment> payments = new ArrayList<>();
+
+        int clock = 0;
+        for (int i = 0; i < PAYMENTS; i++) {
+            clock += random.nextInt(2);
+            // Some payments arrive late
+            int timestamp = random.nextInt(10) == 0 ? Math.max(clock - random.nextInt(20), 0)
+                    : clock;
+            Payment payment = new Payment(MERCHANTS[random.nextInt(MERCHANTS.length)],
+                    timestamp, random.nextInt(100_000) / 100.0 + random.nextDouble());
+            spendings.record(payment.merchant(), payment.timestamp(), payment.amount());
+            payments.add(payment);
+        }
+        payments.sort(Comparator.comparingInt(Payment::timestamp));
+
+        for (int window = 0; window < WINDOWS; window++) {
+            int start = random.nextInt(clock + 1);
+            int end = window % 2 == 0 ? start + random.nextInt(50) : start + random.nextInt(clock);
+            assertWindow(spendings, payments, start, end);
+        }
+        assertWindow(spendings, payments, 0, clock);
+    }
+
+    private static void assertWindow(final MerchantSpendings spendings,
+                                     final List<Payment> payments, final int start,
+                                     final int end) {
+        // The totals, added up one payment at a time in timestamp order
+        Map<String, Double> expected = new TreeMap<>();
+        Map<String, Integer> counts = new TreeMap<>();
+        Map<String, Boolean> fromFirst = new TreeMap<>();
+        for (Payment payment : payments) {
+            if (!fromFirst.containsKey(payment.merchant())) {
+                fromFirst.put(payment.merchant(), payment.timestamp() >= start);
+            }
+            if (payment.timestamp() >= start && payment.timestamp() <= end) {
+                expected.merge(payment.merchant(), payment.amount(), Double::sum);
+                counts.merge(payment.merchant(), 1, Integer::sum);
+            }
+        }
+
+        List<MerchantSpendings.Total> totals = spendings.totalsBetween(start, end);
+        assertEquals(new ArrayList<>(expected.keySet()),
+                totals.stream().map(MerchantSpendings.Total::commerciant).toList());
+        for (MerchantSpendings.Total total : totals) {
+            double sum = expected.get(total.commerciant());
+            // Short windows and windows from the first payment are summed exactly
+            if (counts.get(total.commerciant()) <= SHORT_WINDOW
+                    || fromFirst.get(total.commerciant())) {
+                assertEquals(sum, total.total(), total.commerciant() + " " + start + ".." + end);
+            } else {
+                assertEquals(sum, total.total(), sum * TOLERANCE,
+                        total.commerciant() + " " + start + ".." + end);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryCommandLogTest {
+    private static final int COMMANDS = 5_000;
+    private static final String[] TEXTS = {"", "a", "RO12POOB0000000000000000", "ion@poo.org",
+        "Ștefan cel Mare ✓", "RON", "EUR", "classic", "savings"};
+    private static final String[] TEXT_FIELDS = {"email", "account", "currency", "target",
+        "description", "cardNumber", "commerciant", "receiver", "alias", "accountType"};
+    private static final String[] INT_FIELDS = {"timestamp", "startTimestamp", "endTimestamp"};
+    private static final String[] DECIMAL_FIELDS = {"amount", "minBalance", "interestRate"};
+    private static final int[] EDGE_INTS = {0, 1, -1, 63, 64, -64, -65, 127, 128,
+        Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+    @TempDir
+    private File directory;
+
+    @Test
+    void binaryLogReadsBackTheSameInput() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        File json = new File(directory, "input.json");
+        File binary = new File(directory, "input.bin");
+        mapper.writeValue(json, randomInput(mapper, new Random(5)));
+
+        List<CommandInput> expected = new ArrayList<>();
+        CommandReader reader = new CommandReader(mapper, json, false);
+        try (reader) {
+            for (CommandInput command = reader.next(); command != null;
+                    command = reader.next()) {
+                expected.add(command);
+            }
+        }
+        try (BankInput input = BankInput.open(mapper, json, false)) {
+            assertEquals(COMMANDS, BinaryCommandWriter.convert(input, binary));
+        }
+
+        assertTrue(BinaryCommandLog.isBinary(binary));
+        assertFalse(BinaryCommandLog.isBinary(json));
+        try (BankInput input = BankInput.open(mapper, binary, false)) {
+            assertInstanceOf(BinaryCommandReader.class, input);
+            assertEquals(List.of(reader.getUsers()), List.of(input.getUsers()));
+            assertEquals(List.of(reader.getExchangeRates()), List.of(input.getExchangeRates()));
+            assertEquals(List.of(reader.getCommerciants()), List.of(input.getCommerciants()));
+            List<CommandInput> actual = new ArrayList<>();
+            for (CommandInput command = input.next(); command != null; command = input.next()) {
+                actual.add(command);
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    private static ObjectNode randomInput(final ObjectMapper mapper, final Random random) {
+        ObjectNode root = mapper.createObjectNode();
+        ArrayNode users = root.putArray("users");
+        for (int i = 0; i < 3; i++) {
+            users.addObject().put("firstName", pick(random)).put("lastName", pick(random))
+                    .put("email", "user" + i + "@poo.org");
+        }
+        root.putArray("exchangeRates").addObject().put("from", "EUR").put("to", "RON")
+                .put("rate", 4.97).put("timestamp", 1);
+        ObjectNode commerciant = root.putArray("commerciants").addObject();
+        commerciant.put("id", 7).put("description", "Food");
+        commerciant.putArray("commerciants").add("Carrefour").add("Lidl");
+
+        CommandType[] types = CommandType.values();
+        ArrayNode commands = root.putArray("commands");
+        for (int i = 0; i < COMMANDS; i++) {
+            ObjectNode command = commands.addObject();
+            // A few names no CommandType knows are stored by name
+            command.put("command", random.nextInt(20) == 0 ? "unknown" + random.nextInt(3)
+                    : types[random.nextInt(types.length)].getCommandName());
+            for (String field : TEXT_FIELDS) {
+                if (random.nextBoolean()) {
+                    command.put(field, random.nextInt(4) == 0
+                            ? "fresh" + random.nextInt(1_000_000) : pick(random));
+                }
+            }
+            for (String field : INT_FIELDS) {
+                if (random.nextBoolean()) {
+                    command.put(field, random.nextBoolean()
+                            ? EDGE_INTS[random.nextInt(EDGE_INTS.length)] : random.nextInt());
+                }
+            }
+            for (String field : DECIMAL_FIELDS) {
+                if (random.nextBoolean()) {
+                    command.put(field, (random.nextDouble() - 0.5) * Math.pow(10,
+                            random.nextInt(12)));
+                }
+            }
+            if (random.nextBoolean()) {
+                ArrayNode accounts = command.putArray("accounts");
+                for (int j = random.nextInt(4); j > 0; j--) {
+                    accounts.add(pick(random));
+                }
+            }
+        }
+        return root;
+    }
+
+    private static String pick(final Random random) {
+        return TEXTS[random.nextInt(TEXTS.length)];
+    }
+}
@@ -0,0 +1,84 @@
+package org.poo.service;
+
+import org.junit.jupiter.api.Test;
+import org.poo.account.Account;
+import org.poo.model.Card;
+import org.poo.model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CardIndexTest {
+    private static final int OPERATIONS = 200_000;
+    // Few distinct numbers, so that adds, removes and probe chains keep meeting
+    private static final int NUMBERS = 3_000;
+
+    @Test
+    void matchesHashMapUnderRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        String[] numbers = new String[NUMBERS];
+        for (int i = 0; i < NUMBERS; i++) {
+            numbers[i] = String.format("%016d", random.nextLong(10_000_000_000_000_000L));
+        }
+
+        CardIndex index = new CardIndex();
+        Map<String, Card> expected = new HashMap<>();
+        Map<Card, Account> accounts = new HashMap<>();
+        User owner = new User("First", "Last", "user@poo.org");
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            String number = numbers[random.nextInt(NUMBERS)];
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    Card card = new Card(number, "RO00POOB" + op);
+                    Account account = new Account("RO00POOB" + op, "RON", "classic");
+                    index.add(card, account, owner);
+                    if (expected.putIfAbsent(number, card) == null) {
+                        accounts.put(card, account);
+                    }
+                }
+                case 1 -> {
+                    // Removing the indexed card or a different card with the same number
+                    Card indexed = expected.get(number);
+                    Card card = indexed != null && random.nextBoolean()
+                            ? indexed : new Card(number, "RO00POOB" + op);
+                    index.remove(card);
+                    expected.remove(number, card);
+                }
+                default -> assertFound(index, expected, accounts, number, owner);
+            }
+        }
+        for (String number : numbers) {
+            assertFound(index, expected, accounts, number, owner);
+        }
+    }
+
+    @Test
+    void ignoresNumbersThatAreNotSixteenDigits() {
+        CardIndex index = new CardIndex();
+        Card card = new Card("12345", "RO00POOB1");
+        index.add(card, new Account("RO00POOB1", "RON", "classic"), null);
+
+        assertEquals(CardIndex.NOT_FOUND, index.find("12345"));
+        assertEquals(CardIndex.NOT_FOUND, index.find("12345678901234a6"));
+        assertEquals(CardIndex.NOT_FOUND, index.find(null));
+    }
+
+    private static void assertFound(final CardIndex index, final Map<String, Card> expected,
+                                    final Map<Card, Account> accounts, final String number,
+                                    final User owner) {
+        int slot = index.find(number);
+        Card card = expected.get(number);
+        if (card == null) {
+            assertEquals(CardIndex.NOT_FOUND, slot, number);
+            return;
+        }
+        assertSame(card, index.cardAt(slot), number);
+        assertSame(accounts.get(card), index.accountAt(slot), number);
+        assertSame(owner, index.ownerAt(slot), number);
+    }
+}
@@ -0,0 +1,72 @@
+package org.poo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CurrencyExchangeServiceTest {
+    private static final String[][] PAIRS = {{"EUR", "RON"}, {"USD", "GBP"}, {"JPY", "CAD"}};
+    private static final int RATES = 300;
+    private static final int MAX_TIMESTAMP = 100;
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * A rate as it was given: the pair is converted with {@code rate} from
+     * {@code from} and with its inverse the other way.
+     */
+    private record GivenRate(int pair, boolean reversed, double rate, int timestamp) {
+    }
+
+    @Test
+    void ratesAddedOutOfOrderApplyFromTheirOwnTimestamp() {
+        Random random = new Random(7);
+        CurrencyExchangeService service = new CurrencyExchangeService();
+        List<GivenRate> given = new ArrayList<>();
+
+        for (int i = 0; i < RATES; i++) {
+            GivenRate rate = new GivenRate(random.nextInt(PAIRS.length), random.nextBoolean(),
+                    1 + random.nextInt(1000) / 100.0, random.nextInt(MAX_TIMESTAMP));
+            String[] pair = PAIRS[rate.pair()];
+            service.addExchangeRate(pair[rate.reversed() ? 1 : 0], pair[rate.reversed() ? 0 : 1],
+                    rate.rate(), rate.timestamp());
+            given.add(rate);
+
+            // Every pair at every timestamp must use the newest rate not after it
+            for (int pairIndex = 0; pairIndex < PAIRS.length; pairIndex++) {
+                for (int timestamp = 0; timestamp <= MAX_TIMESTAMP; timestamp += 7) {
+                    assertConversion(service, given, pairIndex, timestamp);
+                }
+            }
+        }
+    }
+
+    private static void assertConversion(final CurrencyExchangeService service,
+                                         final List<GivenRate> given, final int pair,
+                                         final int timestamp) {
+        // Among the rates of the pair not newer than the timestamp, the newest one wins,
+        // and with equal timestamps the one given last
+        GivenRate effective = null;
+        for (GivenRate rate : given) {
+            if (rate.pair() == pair && rate.timestamp() <= timestamp
+                    && (effective == null || rate.timestamp() >= effective.timestamp())) {
+                effective = rate;
+            }
+        }
+
+        int fromId = service.idOf(PAIRS[pair][0]);
+        int toId = service.idOf(PAIRS[pair][1]);
+        if (effective == null) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.convert(fromId, toId, 1, timestamp));
+            return;
+        }
+        double expected = effective.reversed() ? 1 / effective.rate() : effective.rate();
+        assertEquals(expected, service.convert(fromId, toId, 1, timestamp),
+                expected * TOLERANCE, "pair " + pair + " at " + timestamp);
+    }
+}
@@ -0,0 +1,57 @@
+package org.poo.transactions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionLogTest {
+    private static final int TRANSACTIONS = 2_000;
+    private static final int LATE_PERCENT = 20;
+    private static final int MAX_DELAY = 50;
+
+    @Test
+    void lateTransactionsAreInsertedInTimestampOrder() {
+        Random random = new Random(3);
+        TransactionStore store = new TransactionStore();
+        TransactionLog log = new TransactionLog(store);
+        List<Transaction> expected = new ArrayList<>();
+
+        int clock = 0;
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            clock += random.nextInt(3);
+            int timestamp = random.nextInt(100) < LATE_PERCENT
+                    ? Math.max(clock - random.nextInt(MAX_DELAY), 0) : clock;
+            Transaction transaction = new Transaction("t" + i, timestamp, "RO00POOB" + i);
+            log.add(store.append(transaction));
+            expected.add(transaction);
+        }
+        // A stable sort keeps equal timestamps in the order they were added
+        expected.sort(Comparator.comparingInt(Transaction::getTimestamp));
+
+        assertEquals(expected.size(), log.size());
+        int index = 0;
+        for (Transaction transaction : log) {
+            assertEquals(expected.get(index).getDescription(), transaction.getDescription());
+            assertEquals(expected.get(index).getDescription(),
+                    log.get(index).getDescription());
+            index++;
+        }
+
+        for (int window = 0; window < 200; window++) {
+            int start = random.nextInt(clock + 1);
+            int end = start + random.nextInt(MAX_DELAY);
+            List<String> inWindow = expected.stream()
+                    .filter(t -> t.getTimestamp() >= start && t.getTimestamp() <= end)
+                    .map(Transaction::getDescription)
+                    .toList();
+            assertEquals(inWindow, log.between(start, end).stream()
+                    .map(Transaction::getDescription)
+                    .toList(), start + ".." + end);
+        }
+    }
+}
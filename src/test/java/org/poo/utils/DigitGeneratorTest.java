@@ -0,0 +1,66 @@
+package org.poo.utils;
+
+import org.junit.jupiter.api.Test;
+import org.poo.service.RunContext;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DigitGeneratorTest {
+    private static final int DIGITS = 100_000;
+    private static final int SEEDS = 200;
+    private static final int IDS = 1_000;
+
+    @Test
+    void matchesRandomNextIntForTheSeedsInUse() {
+        assertSameDigits(Utils.IBAN_SEED);
+        assertSameDigits(Utils.CARD_SEED);
+    }
+
+    @Test
+    void matchesRandomNextIntForAnySeed() {
+        Random seeds = new Random(13);
+        assertSameDigits(0);
+        assertSameDigits(-1);
+        assertSameDigits(Long.MIN_VALUE);
+        assertSameDigits(Long.MAX_VALUE);
+        for (int i = 0; i < SEEDS; i++) {
+            assertSameDigits(seeds.nextLong());
+        }
+    }
+
+    @Test
+    void runContextGeneratesTheSameIdsAsRandom() {
+        Random ibanRandom = new Random(Utils.IBAN_SEED);
+        Random cardRandom = new Random(Utils.CARD_SEED);
+        RunContext context = new RunContext();
+        RunContext interleaved = new RunContext();
+        for (int i = 0; i < IDS; i++) {
+            String iban = "RO" + digits(ibanRandom, 2) + "POOB" + digits(ibanRandom, 16);
+            String cardNumber = digits(cardRandom, 16);
+            assertEquals(iban, context.nextIban());
+            assertEquals(cardNumber, context.nextCardNumber());
+
+            // Another run, using its context in a different order, is not affected
+            assertEquals(cardNumber, interleaved.nextCardNumber());
+            assertEquals(iban, interleaved.nextIban());
+        }
+    }
+
+    private static void assertSameDigits(final long seed) {
+        Random random = new Random(seed);
+        DigitGenerator generator = new DigitGenerator(seed);
+        for (int i = 0; i < DIGITS; i++) {
+            assertEquals(random.nextInt(10), generator.nextDigit(), "seed " + seed + " at " + i);
+        }
+    }
+
+    private static String digits(final Random random, final int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(random.nextInt(10));
+        }
+        return sb.toString();
+    }
+}